@@ -70,6 +70,14 @@ public final class Constant {
     public static final int GAMEHEIGHT = 320;
     /** Game screen width. */
     public static final int GAMEWIDTH = 640;
+    /** Extra tiles rendered around the visible camera area. */
+    public static final int CAMERA_TILE_MARGIN = 1;
+    /** Size of a pre-rendered ground chunk in tiles. */
+    public static final int TILE_CHUNK_SIZE = 16;
+    /** Maximum number of pre-rendered ground chunks kept in memory. */
+    public static final int TILE_CHUNK_CACHE_SIZE = 32;
+    /** Distance in chunks from the visible area after which a chunk is evicted. */
+    public static final int TILE_CHUNK_EVICT_DISTANCE = 2;
 
     // Level
     /** Level width in tiles. */
@@ -99,6 +107,74 @@ public final class Constant {
     /** Maximum jump height in pixels. */
     public static final double MAX_JUMP_HEIGHT = 3 * TILE_SIZE;
 
+    // Simulation
+    /** Rate (ticks per second) the per-tick physics constants above were tuned for. */
+    public static final int SIMULATION_BASE_RATE = 60;
+    /** Fixed simulation rate in ticks per second, independent of the display refresh rate. */
+    public static final int SIMULATION_TICK_RATE = 120;
+    /** Fraction of a base-rate frame covered by one simulation tick. */
+    public static final double SIMULATION_STEP = (double) SIMULATION_BASE_RATE / SIMULATION_TICK_RATE;
+    /** Maximum number of ticks run per rendered frame before the remaining backlog is dropped. */
+    public static final int SIMULATION_MAX_TICKS_PER_FRAME = 8;
+    /** Longest frame time (nanoseconds) fed into the accumulator, e.g. after a stall. */
+    public static final long SIMULATION_MAX_FRAME_NANOS = 250_000_000L;
+    /** Run the simulation on its own thread instead of the JavaFX application thread. */
+    public static final boolean SIMULATION_THREADED = false;
+    /** Initial simulation time scale (1 = real time, {@link Double#POSITIVE_INFINITY} = as fast as possible). */
+    public static final double TIME_SCALE = 1.0;
+    /** Time scales selectable with the keys 1 to 4 during the game. */
+    public static final double[] TIME_SCALE_PRESETS = {0.25, 1.0, 4.0, Double.POSITIVE_INFINITY};
+    /** Simulation time per frame when running as fast as possible; the rest of the frame renders. */
+    public static final long FAST_FORWARD_FRAME_NANOS = 12_000_000L;
+    /** Minimum number of simulation ticks between two hits of the same spike (~1 second). */
+    public static final int SPIKE_COOLDOWN_TICKS = SIMULATION_TICK_RATE;
+
+    // Collision
+    /** Number of buckets of the spatial hash for moving bodies (power of two). */
+    public static final int SPATIAL_HASH_BUCKETS = 4096;
+
+    // Frame pacing
+    /** Maximum frames per second, or 0 to render at the display rate. */
+    public static final int FRAME_CAP_FPS = 0;
+    /** Frames per second while nothing on screen changes. */
+    public static final int IDLE_FPS = 20;
+    /** Number of unchanged frames after which the loop renders at {@link #IDLE_FPS}. */
+    public static final int IDLE_AFTER_FRAMES = 60;
+    /** Suspend simulation and rendering while the window is unfocused or minimized. */
+    public static final boolean SUSPEND_WHEN_INACTIVE = true;
+
+    // Quality scheduler
+    /** Time budget of one frame in nanoseconds (60 fps). */
+    public static final long FRAME_BUDGET_NANOS = 1_000_000_000L / 60;
+    /** Step the quality down when the average frame cost exceeds this share of the budget. */
+    public static final double QUALITY_DOWNGRADE_RATIO = 0.9;
+    /** Step the quality up when the average frame cost stays below this share of the budget. */
+    public static final double QUALITY_UPGRADE_RATIO = 0.5;
+    /** Number of consecutive frames over the downgrade threshold before stepping down. */
+    public static final int QUALITY_DOWNGRADE_FRAMES = 30;
+    /** Number of consecutive frames under the upgrade threshold before stepping up. */
+    public static final int QUALITY_UPGRADE_FRAMES = 240;
+    /** Scroll step of the parallax background in pixels at {@code COARSE_PARALLAX} quality. */
+    public static final int PARALLAX_COARSE_STEP = 8;
+
+    // Profiler
+    /** Show the per-phase frame profiler readout over the game. */
+    public static final boolean PROFILER_OVERLAY = false;
+    /** Number of frames between updates of the profiler readout. */
+    public static final int PROFILER_READOUT_FRAMES = 30;
+    /** CSV file the frame profile is written to when the game loop stops, or null to disable. */
+    public static final String PROFILER_CSV_FILE = null;
+
+    // Input
+    /** Capacity of the key event ring buffer (power of two). */
+    public static final int INPUT_QUEUE_CAPACITY = 256;
+    /** Drain input up to the actual start of a threaded tick (not its scheduled time) and render key events without waiting for the frame cap. */
+    public static final boolean INPUT_LATE_SAMPLING = true;
+    /** File the input of each game is recorded to when the game screen closes, or null to disable. */
+    public static final String INPUT_RECORD_FILE = null;
+    /** Recording replayed instead of the keyboard (on its level), or null to play normally. */
+    public static final String INPUT_REPLAY_FILE = null;
+
     /** God mode (cheat mode). */
     public static final boolean GOD_MODE = false;
 
@@ -147,6 +223,10 @@ public final class Constant {
     public static final String BACKGROUND_PNG_01 = "background_01.png";
     /** Parallax background image 2. */
     public static final String BACKGROUND_PNG_02 = "background_02.png";       
+    /** Parallax layers, drawn from back to front. */
+    public static final String[] PARALLAX_LAYERS = {BACKGROUND_PNG_01, BACKGROUND_PNG_02};
+    /** Scroll factor of each parallax layer relative to the camera. */
+    public static final double[] PARALLAX_SCROLL_FACTORS = {0.3, 0.6};
     
     // Generator
     /** Minimum height of the ground (used for noise-based generation) */
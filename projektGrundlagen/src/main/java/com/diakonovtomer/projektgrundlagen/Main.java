@@ -5,6 +5,8 @@
 package com.diakonovtomer.projektgrundlagen;
 
 // Imports
+import com.diakonovtomer.projektgrundlagen.game.AssetRegistry;
+import com.diakonovtomer.projektgrundlagen.game.TextureAtlas;
 import com.diakonovtomer.projektgrundlagen.menu.MenuScreen;
 import com.diakonovtomer.projektgrundlagen.menu.GameScreen;
 import com.diakonovtomer.projektgrundlagen.menu.AboutScreen;
@@ -42,6 +44,14 @@ public class Main extends Application {
     @Override
     public void start(Stage stage) {
         this.primaryStage = stage;
+        // Decode all images once, in parallel, before the first screen is shown
+        AssetRegistry.preload();
+        System.out.println("Assets loaded: " + AssetRegistry.getLoadedCount()
+                + " images, " + (AssetRegistry.getLoadedBytes() / 1024) + " KB");
+        // Pack the small sprites into one texture
+        TextureAtlas atlas = TextureAtlas.shared();
+        System.out.println("Texture atlas: " + (int) atlas.getImage().getWidth()
+                + "x" + (int) atlas.getImage().getHeight());
         // Initializing a JavaFX application
         primaryStage.setTitle(Constant.APP_TITLE);
         menuScreen = new MenuScreen(Constant.WIDTH, Constant.HEIGHT, new MenuScreen.MenuListener() {
@@ -96,6 +106,17 @@ public class Main extends Application {
         primaryStage.setScene(gameScreen.getScene());
     }
     
+    /**
+     * Called when the application exits.
+     * Stops a running game so its loop can shut down cleanly.
+     */
+    @Override
+    public void stop() {
+        if (gameScreen != null) {
+            gameScreen.stop();
+        }
+    }
+
     /**
      * Displays the "About" screen.
      */
@@ -23,6 +23,12 @@ import com.diakonovtomer.projektgrundlagen.level.GroundLayer;
  * It supports solid tile checking, collision testing for horizontal movement, and object collision detection.
  * </p>
  * 
+ * <p>
+ * Solidity queries use a bit-packed {@link SolidityGrid} built from the ground layer,
+ * which is kept up to date through the level's tile change notifications.
+ * Object queries use the sparse {@link TriggerIndex} of interactive objects.
+ * </p>
+ * 
  * @author adiakonov
  */
 public class CollisionHandler {
@@ -31,6 +37,14 @@ public class CollisionHandler {
     private Level level;
     private final double playerHitboxWidth;
     private final double playerHitboxHeight;
+    private final SolidityGrid solidity;
+    private final TriggerIndex triggers;
+
+    /**
+     * Maximum number of objects the player's hitbox can overlap at once. The hitbox
+     * is smaller than a tile, so it spans at most two tiles on each axis.
+     */
+    public static final int MAX_OBJECT_HITS = 4;
 
     /**
      * Constructs a new {@code CollisionHandler} for a given level.
@@ -43,6 +57,41 @@ public class CollisionHandler {
         this.objectLayer = level.getObjectLayer();
         this.playerHitboxWidth = Constant.PLAYER_WIDTH * Constant.PLAYER_WIDTH_HITBOX; // 10% kleiner
         this.playerHitboxHeight = Constant.PLAYER_HEIGHT * Constant.PLAYER_HEIGHT_HITBOX; // 10% kleiner
+        this.solidity = SolidityGrid.fromGroundLayer(groundLayer);
+        level.addTileChangeListener(this::onTileChanged);
+        this.triggers = new TriggerIndex(objectLayer);
+        level.addTileChangeListener(triggers);
+    }
+
+    /**
+     * Updates the solidity grid when a ground tile changes.
+     *
+     * @param type the layer type
+     * @param x    the tile column
+     * @param y    the tile row
+     */
+    private void onTileChanged(String type, int x, int y) {
+        if (Constant.MAP_LAYER_NAME_GROUND.equals(type)) {
+            solidity.set(x, y, groundLayer.layer[y][x].isSolid());
+        }
+    }
+
+    /**
+     * Returns the index of interactive objects used for object queries.
+     *
+     * @return the trigger index
+     */
+    public TriggerIndex getTriggerIndex() {
+        return triggers;
+    }
+
+    /**
+     * Returns the solidity grid used for tile queries.
+     *
+     * @return the solidity grid
+     */
+    public SolidityGrid getSolidityGrid() {
+        return solidity;
     }
     
     /**
@@ -53,10 +102,7 @@ public class CollisionHandler {
      * @return {@code true} if the tile is solid or out of bounds (treated as solid), {@code false} otherwise
      */
     public boolean isSolid(int x, int y) {
-        if (y < 0 || y >= groundLayer.lengthY || x < 0 || x >= groundLayer.lengthX) {   
-            return true; // Out-of-bounds is treated as solid wall
-        }
-        return groundLayer.layer[y][x].isSolid();
+        return solidity.isSolid(x, y); // Out-of-bounds is treated as solid wall
     }
 
     /**
@@ -77,16 +123,94 @@ public class CollisionHandler {
         int rightTile = (int) ((adjustedX + playerHitboxWidth - 1) / Constant.TILE_SIZE);
         int topTile = (int) (adjustedY / Constant.TILE_SIZE);
         int bottomTile = (int) ((adjustedY + playerHitboxHeight - 1) / Constant.TILE_SIZE);
-        for (int y = topTile; y <= bottomTile; y++) {
-            for (int x = leftTile; x <= rightTile; x++) {
-                if (isSolid(x, y)) {
-                    return true;
+        return solidity.isSolidRect(leftTile, topTile, rightTile, bottomTile);
+    }
+    
+    /**
+     * Sweeps the player's hitbox horizontally through the tile grid.
+     * <p>
+     * Returns how far the hitbox can move before it touches a solid tile. The
+     * time of impact within the step is {@code result / dx}; a result equal to
+     * {@code dx} means the way is free. Every tile column crossed is tested, so
+     * fast movement cannot tunnel through thin walls.
+     * </p>
+     *
+     * @param xPixel the x-position in pixels
+     * @param yPixel the y-position in pixels
+     * @param dx     the requested horizontal movement in pixels
+     * @return the movement up to contact, between 0 and {@code dx}
+     */
+    public double sweepX(double xPixel, double yPixel, double dx) {
+        double adjustedX = xPixel + (Constant.PLAYER_WIDTH - playerHitboxWidth) / 2;
+        double adjustedY = yPixel + (Constant.PLAYER_HEIGHT - playerHitboxHeight) / 2;
+        int topTile = tileOf(adjustedY);
+        int bottomTile = ceilTileOf(adjustedY + playerHitboxHeight) - 1; // every row the box overlaps, however little
+        return sweep(adjustedX, playerHitboxWidth, dx, topTile, bottomTile, true);
+    }
+
+    /**
+     * Sweeps the player's hitbox vertically through the tile grid.
+     *
+     * @param xPixel the x-position in pixels
+     * @param yPixel the y-position in pixels
+     * @param dy     the requested vertical movement in pixels
+     * @return the movement up to contact, between 0 and {@code dy}
+     * @see #sweepX(double, double, double)
+     */
+    public double sweepY(double xPixel, double yPixel, double dy) {
+        double adjustedX = xPixel + (Constant.PLAYER_WIDTH - playerHitboxWidth) / 2;
+        double adjustedY = yPixel + (Constant.PLAYER_HEIGHT - playerHitboxHeight) / 2;
+        int leftTile = tileOf(adjustedX);
+        int rightTile = ceilTileOf(adjustedX + playerHitboxWidth) - 1; // every column the box overlaps, however little
+        return sweep(adjustedY, playerHitboxHeight, dy, leftTile, rightTile, false);
+    }
+
+    /**
+     * Moves an interval along one axis tile by tile until a solid tile is reached.
+     * The hitbox is treated as the half-open interval {@code [min, min + size)},
+     * so the contact position touches the solid tile without overlapping it.
+     *
+     * @param min        the start of the hitbox on the moving axis in pixels
+     * @param size       the hitbox extent on the moving axis in pixels
+     * @param delta      the requested movement in pixels
+     * @param crossFrom  the first tile on the other axis
+     * @param crossTo    the last tile on the other axis
+     * @param horizontal true if moving along x
+     * @return the movement up to contact
+     */
+    private double sweep(double min, double size, double delta, int crossFrom, int crossTo, boolean horizontal) {
+        if (delta > 0) {
+            int last = ceilTileOf(min + size + delta) - 1;
+            for (int tile = ceilTileOf(min + size); tile <= last; tile++) {
+                if (isSolidLine(tile, crossFrom, crossTo, horizontal)) {
+                    return Math.max(0, Math.min(delta, tile * Constant.TILE_SIZE - size - min));
+                }
+            }
+        } else if (delta < 0) {
+            int last = tileOf(min + delta);
+            for (int tile = tileOf(min) - 1; tile >= last; tile--) {
+                if (isSolidLine(tile, crossFrom, crossTo, horizontal)) {
+                    return Math.min(0, Math.max(delta, (tile + 1) * Constant.TILE_SIZE - min));
                 }
             }
         }
-        return false;
+        return delta;
     }
-    
+
+    private boolean isSolidLine(int tile, int crossFrom, int crossTo, boolean horizontal) {
+        return horizontal
+                ? solidity.isSolidRect(tile, crossFrom, tile, crossTo)
+                : solidity.isSolidRect(crossFrom, tile, crossTo, tile);
+    }
+
+    private static int tileOf(double pixel) {
+        return (int) Math.floor(pixel / Constant.TILE_SIZE);
+    }
+
+    private static int ceilTileOf(double pixel) {
+        return (int) Math.ceil(pixel / Constant.TILE_SIZE);
+    }
+
     /**
      * Performs a horizontal-only collision check for the player's hitbox.
      * This can be used to optimize side movement detection.
@@ -104,26 +228,23 @@ public class CollisionHandler {
         int rightTile = (int) ((adjustedX + playerHitboxWidth - 1) / Constant.TILE_SIZE);
         int topTile = (int) (adjustedY / Constant.TILE_SIZE);
         int bottomTile = (int) ((adjustedY + playerHitboxHeight - 1) / Constant.TILE_SIZE);
-        for (int y = topTile; y <= bottomTile; y++) {
-            for (int x = leftTile; x <= rightTile; x++) {
-                if (isSolid(x, y)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return solidity.isSolidRect(leftTile, topTile, rightTile, bottomTile);
     }
 
     /**
-     * Checks for collision with objects in the object layer.
-     * If an object is found within the player's hitbox area, its tile coordinates are returned.
+     * Collects all objects overlapped by the player's hitbox at the given position.
+     * <p>
+     * The tile coordinates of each hit are written as {@code x, y} pairs into the
+     * caller's buffer, so the query does not allocate. Hits beyond the buffer's
+     * capacity are dropped; a buffer of {@link #MAX_OBJECT_HITS} pairs always suffices.
+     * </p>
      *
      * @param xPixel the x-position in pixels
      * @param yPixel the y-position in pixels
-     * @return an array of two integers [x, y] representing the tile coordinates of the object,
-     *         or [0, 0] if no object is detected
+     * @param hits   the buffer receiving {@code x, y} pairs
+     * @return the number of objects found (pairs written)
      */
-    public int[] collisionCheckObject(double xPixel, double yPixel) {
+    public int collisionCheckObjects(double xPixel, double yPixel, int[] hits) {
         double hitboxOffsetX = (Constant.PLAYER_WIDTH - playerHitboxWidth) / 2;
         double hitboxOffsetY = (Constant.PLAYER_HEIGHT - playerHitboxHeight) / 2;
         double adjustedX = xPixel + hitboxOffsetX;
@@ -132,27 +253,29 @@ public class CollisionHandler {
         int rightTile = (int) ((adjustedX + playerHitboxWidth - 1) / Constant.TILE_SIZE);
         int topTile = (int) (adjustedY / Constant.TILE_SIZE);
         int bottomTile = (int) ((adjustedY + playerHitboxHeight - 1) / Constant.TILE_SIZE);
+        int capacity = hits.length / 2;
+        int count = 0;
         for (int y = topTile; y <= bottomTile; y++) {
             for (int x = leftTile; x <= rightTile; x++) {
-                if (isObject(x, y)) {
-                    return new int[]{x, y};
+                if (count < capacity && isObject(x, y)) {
+                    hits[2 * count] = x;
+                    hits[2 * count + 1] = y;
+                    count++;
                 }
             }
         }
-        return new int[]{0, 0}; // Default: no object detected
+        return count;
     }
     
     /**
      * Checks if the specified tile coordinates correspond to an object.
+     * Looks the tile up in the sparse {@link TriggerIndex}.
      *
      * @param x the tile's x-coordinate
      * @param y the tile's y-coordinate
      * @return {@code true} if the tile contains an object, {@code false} otherwise
      */
     public boolean isObject(int x, int y) {
-        if (y < 0 || y >= objectLayer.lengthY || x < 0 || x >= objectLayer.lengthX) {
-            return false; // Out-of-bounds is not considered an object
-        }
-        return objectLayer.layer[y][x].isObject();
+        return triggers.objectAt(x, y) != null; // Out-of-bounds is not considered an object
     }             
 }
\ No newline at end of file
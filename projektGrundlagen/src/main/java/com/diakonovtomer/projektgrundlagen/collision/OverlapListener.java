@@ -0,0 +1,21 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.collision;
+
+/**
+ * Receives the pairs of overlapping bodies found by {@link SpatialHash#findOverlaps(OverlapListener)}.
+ *
+ * @author adiakonov
+ */
+public interface OverlapListener {
+
+    /**
+     * Called once for each pair of overlapping bodies.
+     *
+     * @param a the id of the first body
+     * @param b the id of the second body
+     */
+    void onOverlap(int a, int b);
+}
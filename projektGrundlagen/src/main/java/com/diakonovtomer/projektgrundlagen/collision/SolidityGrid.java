@@ -0,0 +1,146 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.collision;
+
+import com.diakonovtomer.projektgrundlagen.level.GroundLayer;
+
+/**
+ * Bit-packed index of the solid tiles of a level: one bit per tile in a {@code long[]}.
+ * <p>
+ * The grid is surrounded by a border of solid tiles, and tile coordinates are
+ * clamped into the padded area with {@link Math#min}/{@link Math#max}, so any
+ * out-of-bounds query lands on the border and reports a solid tile without a
+ * bounds branch. Rows are stored one after another, 64 tiles per word; a map of
+ * 100,000 columns and 10 rows takes about 150 KB.
+ * </p>
+ *
+ * @author adiakonov
+ */
+public class SolidityGrid {
+    /** Width of the solid border around the level, in tiles. */
+    private static final int PAD = 1;
+
+    private final int width;
+    private final int height;
+    private final int paddedWidth;
+    private final int paddedHeight;
+    private final int stride;
+    private final long[] bits;
+
+    /**
+     * Creates a grid with only the border solid.
+     *
+     * @param width  the level width in tiles
+     * @param height the level height in tiles
+     */
+    public SolidityGrid(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.paddedWidth = width + 2 * PAD;
+        this.paddedHeight = height + 2 * PAD;
+        this.stride = (paddedWidth + 63) >>> 6;
+        this.bits = new long[stride * paddedHeight];
+        for (int py = 0; py < paddedHeight; py++) {
+            for (int px = 0; px < paddedWidth; px++) {
+                if (py < PAD || py >= height + PAD || px < PAD || px >= width + PAD) {
+                    bits[py * stride + (px >>> 6)] |= 1L << px;
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds the grid from the solid tiles of a ground layer.
+     *
+     * @param groundLayer the ground layer
+     * @return the grid
+     */
+    public static SolidityGrid fromGroundLayer(GroundLayer groundLayer) {
+        SolidityGrid grid = new SolidityGrid(groundLayer.lengthX, groundLayer.lengthY);
+        for (int y = 0; y < groundLayer.lengthY; y++) {
+            for (int x = 0; x < groundLayer.lengthX; x++) {
+                grid.set(x, y, groundLayer.layer[y][x].isSolid());
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Sets the solidity of a tile inside the level. Border tiles cannot be changed.
+     *
+     * @param x     the tile column
+     * @param y     the tile row
+     * @param solid whether the tile is solid
+     */
+    public void set(int x, int y, boolean solid) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return;
+        }
+        int px = x + PAD;
+        int index = (y + PAD) * stride + (px >>> 6);
+        if (solid) {
+            bits[index] |= 1L << px;
+        } else {
+            bits[index] &= ~(1L << px);
+        }
+    }
+
+    /**
+     * Checks whether a tile is solid; tiles outside the level are solid.
+     *
+     * @param x the tile column
+     * @param y the tile row
+     * @return true if the tile is solid or out of bounds
+     */
+    public boolean isSolid(int x, int y) {
+        int px = Math.min(Math.max(x + PAD, 0), paddedWidth - 1);
+        int py = Math.min(Math.max(y + PAD, 0), paddedHeight - 1);
+        return (bits[py * stride + (px >>> 6)] >>> px & 1L) != 0; // shift distance is taken mod 64
+    }
+
+    /**
+     * Checks whether any tile of a rectangle is solid; tiles outside the level are solid.
+     * Each row is tested a word (64 tiles) at a time.
+     *
+     * @param left   the first tile column
+     * @param top    the first tile row
+     * @param right  the last tile column (inclusive)
+     * @param bottom the last tile row (inclusive)
+     * @return true if at least one tile is solid or out of bounds
+     */
+    public boolean isSolidRect(int left, int top, int right, int bottom) {
+        int px0 = Math.min(Math.max(left + PAD, 0), paddedWidth - 1);
+        int px1 = Math.min(Math.max(right + PAD, 0), paddedWidth - 1);
+        int py0 = Math.min(Math.max(top + PAD, 0), paddedHeight - 1);
+        int py1 = Math.min(Math.max(bottom + PAD, 0), paddedHeight - 1);
+        int w0 = px0 >>> 6;
+        int w1 = px1 >>> 6;
+        long firstMask = -1L << px0;
+        long lastMask = -1L >>> (63 - (px1 & 63));
+        for (int py = py0; py <= py1; py++) {
+            int row = py * stride;
+            for (int w = w0; w <= w1; w++) {
+                long mask = (w == w0 ? firstMask : -1L) & (w == w1 ? lastMask : -1L);
+                if ((bits[row + w] & mask) != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public int getWidth() { return width; }
+
+    public int getHeight() { return height; }
+
+    /**
+     * Returns the memory used by the bits.
+     *
+     * @return the size in bytes
+     */
+    public long getSizeBytes() {
+        return (long) bits.length * Long.BYTES;
+    }
+}
@@ -0,0 +1,378 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.collision;
+
+import com.diakonovtomer.projektgrundlagen.Constant;
+import java.util.Arrays;
+
+/**
+ * Uniform-grid spatial hash for moving axis-aligned boxes (enemies, projectiles,
+ * moving platforms).
+ * <p>
+ * The world is divided into square cells, by default {@link Constant#TILE_SIZE}
+ * pixels wide. Each cell is hashed into a bucket, so the world does not need to
+ * be bounded. A body is linked into every cell its box covers. The bucket table
+ * doubles whenever there are more links than buckets, which keeps bucket lists
+ * short with tens of thousands of bodies.
+ * </p>
+ * <p>
+ * Bodies are identified by the int id returned from {@link #insert}. All state is
+ * kept in parallel arrays with linked lists of int nodes, so moving bodies and
+ * running queries do not allocate; only inserting past the current capacity grows
+ * the arrays. Moving a body inside the cells it already covers only updates its box.
+ * </p>
+ *
+ * @author adiakonov
+ */
+public class SpatialHash {
+    private static final int NONE = -1;
+
+    private final int cellSize;
+    private int bucketMask;
+    private int[] bucketHead;
+
+    // Bodies
+    private double[] minX, minY, maxX, maxY;
+    private int[] cellX0, cellY0, cellX1, cellY1;
+    private boolean[] alive;
+    private int[] stamp;
+    private int[] freeIds;
+    private int freeIdCount = 0;
+    private int bodyCapacity = 0;
+    private int bodyCount = 0;
+    private int queryStamp = 0;
+
+    // Nodes: one per (body, covered cell)
+    private int[] nodeBody, nodeCellX, nodeCellY, nodeNext;
+    private int freeNode = NONE;
+    private int nodeCapacity = 0;
+    private int nodeCount = 0;
+
+    /**
+     * Creates a spatial hash with tile-sized cells and {@link Constant#SPATIAL_HASH_BUCKETS} initial buckets.
+     */
+    public SpatialHash() {
+        this(Constant.TILE_SIZE, Constant.SPATIAL_HASH_BUCKETS);
+    }
+
+    /**
+     * Creates a spatial hash.
+     *
+     * @param cellSize    the cell size in pixels
+     * @param bucketCount the initial number of buckets (rounded up to a power of two)
+     */
+    public SpatialHash(int cellSize, int bucketCount) {
+        if (cellSize <= 0 || bucketCount <= 0) {
+            throw new IllegalArgumentException("Cell size and bucket count must be positive");
+        }
+        this.cellSize = cellSize;
+        int buckets = Integer.highestOneBit(bucketCount);
+        if (buckets < bucketCount) {
+            buckets <<= 1;
+        }
+        this.bucketMask = buckets - 1;
+        this.bucketHead = new int[buckets];
+        Arrays.fill(bucketHead, NONE);
+        growBodies(64);
+        growNodes(128);
+    }
+
+    // --- Bodies ---
+
+    /**
+     * Adds a body.
+     *
+     * @param x      the left edge in pixels
+     * @param y      the top edge in pixels
+     * @param width  the width in pixels
+     * @param height the height in pixels
+     * @return the id of the body
+     */
+    public int insert(double x, double y, double width, double height) {
+        if (freeIdCount == 0) {
+            growBodies(bodyCapacity * 2);
+        }
+        int id = freeIds[--freeIdCount];
+        alive[id] = true;
+        stamp[id] = 0;
+        bodyCount++;
+        setBox(id, x, y, width, height);
+        link(id);
+        return id;
+    }
+
+    /**
+     * Moves a body, keeping its size.
+     *
+     * @param id the body id
+     * @param x  the new left edge in pixels
+     * @param y  the new top edge in pixels
+     */
+    public void move(int id, double x, double y) {
+        update(id, x, y, maxX[id] - minX[id], maxY[id] - minY[id]);
+    }
+
+    /**
+     * Moves and resizes a body. Only re-links the body when the set of covered cells changes.
+     *
+     * @param id     the body id
+     * @param x      the new left edge in pixels
+     * @param y      the new top edge in pixels
+     * @param width  the new width in pixels
+     * @param height the new height in pixels
+     */
+    public void update(int id, double x, double y, double width, double height) {
+        checkAlive(id);
+        int x0 = cellOf(x);
+        int y0 = cellOf(y);
+        int x1 = lastCellOf(x, width);
+        int y1 = lastCellOf(y, height);
+        if (x0 == cellX0[id] && y0 == cellY0[id] && x1 == cellX1[id] && y1 == cellY1[id]) {
+            setBox(id, x, y, width, height);
+            return;
+        }
+        unlink(id);
+        setBox(id, x, y, width, height);
+        link(id);
+    }
+
+    /**
+     * Removes a body. Its id may be reused by a later {@link #insert}.
+     *
+     * @param id the body id
+     */
+    public void remove(int id) {
+        checkAlive(id);
+        unlink(id);
+        alive[id] = false;
+        freeIds[freeIdCount++] = id;
+        bodyCount--;
+    }
+
+    public int size() { return bodyCount; }
+
+    public boolean contains(int id) { return id >= 0 && id < bodyCapacity && alive[id]; }
+
+    public double getMinX(int id) { return minX[id]; }
+
+    public double getMinY(int id) { return minY[id]; }
+
+    public double getMaxX(int id) { return maxX[id]; }
+
+    public double getMaxY(int id) { return maxY[id]; }
+
+    // --- Queries ---
+
+    /**
+     * Collects the ids of all bodies overlapping a rectangle into the caller's buffer.
+     * Each body is reported once; results beyond the buffer's length are dropped.
+     *
+     * @param x      the left edge in pixels
+     * @param y      the top edge in pixels
+     * @param width  the width in pixels
+     * @param height the height in pixels
+     * @param out    the buffer receiving body ids
+     * @return the number of ids written
+     */
+    public int query(double x, double y, double width, double height, int[] out) {
+        int x0 = cellOf(x);
+        int y0 = cellOf(y);
+        int x1 = lastCellOf(x, width);
+        int y1 = lastCellOf(y, height);
+        double right = x + width;
+        double bottom = y + height;
+        int mark = nextStamp();
+        int count = 0;
+        for (int cy = y0; cy <= y1; cy++) {
+            for (int cx = x0; cx <= x1; cx++) {
+                for (int node = bucketHead[bucket(cx, cy)]; node != NONE; node = nodeNext[node]) {
+                    int id = nodeBody[node];
+                    if (nodeCellX[node] != cx || nodeCellY[node] != cy || stamp[id] == mark) {
+                        continue;
+                    }
+                    stamp[id] = mark;
+                    if (minX[id] < right && x < maxX[id] && minY[id] < bottom && y < maxY[id]) {
+                        if (count == out.length) {
+                            return count;
+                        }
+                        out[count++] = id;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Broadphase: reports every pair of overlapping bodies exactly once.
+     * <p>
+     * Only bodies sharing a cell are compared. A pair is reported from the cell
+     * holding the top-left corner of the intersection of the two boxes, so pairs
+     * sharing several cells are not reported twice.
+     * </p>
+     *
+     * @param listener receives the overlapping pairs
+     */
+    public void findOverlaps(OverlapListener listener) {
+        for (int head : bucketHead) {
+            for (int a = head; a != NONE; a = nodeNext[a]) {
+                int idA = nodeBody[a];
+                int cx = nodeCellX[a];
+                int cy = nodeCellY[a];
+                for (int b = nodeNext[a]; b != NONE; b = nodeNext[b]) {
+                    int idB = nodeBody[b];
+                    if (nodeCellX[b] != cx || nodeCellY[b] != cy || idA == idB) {
+                        continue;
+                    }
+                    if (minX[idA] < maxX[idB] && minX[idB] < maxX[idA]
+                            && minY[idA] < maxY[idB] && minY[idB] < maxY[idA]
+                            && cellOf(Math.max(minX[idA], minX[idB])) == cx
+                            && cellOf(Math.max(minY[idA], minY[idB])) == cy) {
+                        listener.onOverlap(idA, idB);
+                    }
+                }
+            }
+        }
+    }
+
+    // --- Internals ---
+
+    private void setBox(int id, double x, double y, double width, double height) {
+        minX[id] = x;
+        minY[id] = y;
+        maxX[id] = x + width;
+        maxY[id] = y + height;
+    }
+
+    private void link(int id) {
+        int x0 = cellOf(minX[id]);
+        int y0 = cellOf(minY[id]);
+        int x1 = lastCellOf(minX[id], maxX[id] - minX[id]);
+        int y1 = lastCellOf(minY[id], maxY[id] - minY[id]);
+        cellX0[id] = x0;
+        cellY0[id] = y0;
+        cellX1[id] = x1;
+        cellY1[id] = y1;
+        for (int cy = y0; cy <= y1; cy++) {
+            for (int cx = x0; cx <= x1; cx++) {
+                if (freeNode == NONE) {
+                    growNodes(nodeCapacity * 2);
+                }
+                int node = freeNode;
+                freeNode = nodeNext[node];
+                int bucket = bucket(cx, cy);
+                nodeBody[node] = id;
+                nodeCellX[node] = cx;
+                nodeCellY[node] = cy;
+                nodeNext[node] = bucketHead[bucket];
+                bucketHead[bucket] = node;
+                nodeCount++;
+            }
+        }
+        if (nodeCount > bucketHead.length) {
+            rehash(bucketHead.length * 2);
+        }
+    }
+
+    private void rehash(int buckets) {
+        int[] oldHead = bucketHead;
+        bucketHead = new int[buckets];
+        bucketMask = buckets - 1;
+        Arrays.fill(bucketHead, NONE);
+        for (int head : oldHead) {
+            int node = head;
+            while (node != NONE) {
+                int next = nodeNext[node];
+                int bucket = bucket(nodeCellX[node], nodeCellY[node]);
+                nodeNext[node] = bucketHead[bucket];
+                bucketHead[bucket] = node;
+                node = next;
+            }
+        }
+    }
+
+    private void unlink(int id) {
+        for (int cy = cellY0[id]; cy <= cellY1[id]; cy++) {
+            for (int cx = cellX0[id]; cx <= cellX1[id]; cx++) {
+                int bucket = bucket(cx, cy);
+                int prev = NONE;
+                for (int node = bucketHead[bucket]; node != NONE; node = nodeNext[node]) {
+                    if (nodeBody[node] == id && nodeCellX[node] == cx && nodeCellY[node] == cy) {
+                        if (prev == NONE) {
+                            bucketHead[bucket] = nodeNext[node];
+                        } else {
+                            nodeNext[prev] = nodeNext[node];
+                        }
+                        nodeNext[node] = freeNode;
+                        freeNode = node;
+                        nodeCount--;
+                        break;
+                    }
+                    prev = node;
+                }
+            }
+        }
+    }
+
+    private int cellOf(double pixel) {
+        return (int) Math.floor(pixel / cellSize);
+    }
+
+    /** Last cell covered by the half-open interval [start, start + length); at least the first cell. */
+    private int lastCellOf(double start, double length) {
+        return Math.max(cellOf(start), (int) Math.ceil((start + length) / cellSize) - 1);
+    }
+
+    private int bucket(int cx, int cy) {
+        return (cx * 73856093 ^ cy * 19349663) & bucketMask;
+    }
+
+    private int nextStamp() {
+        if (++queryStamp == Integer.MAX_VALUE) {
+            Arrays.fill(stamp, 0);
+            queryStamp = 1;
+        }
+        return queryStamp;
+    }
+
+    private void checkAlive(int id) {
+        if (!contains(id)) {
+            throw new IllegalArgumentException("Unknown body id: " + id);
+        }
+    }
+
+    private void growBodies(int capacity) {
+        int old = bodyCapacity;
+        minX = Arrays.copyOf(minX == null ? new double[0] : minX, capacity);
+        minY = Arrays.copyOf(minY == null ? new double[0] : minY, capacity);
+        maxX = Arrays.copyOf(maxX == null ? new double[0] : maxX, capacity);
+        maxY = Arrays.copyOf(maxY == null ? new double[0] : maxY, capacity);
+        cellX0 = Arrays.copyOf(cellX0 == null ? new int[0] : cellX0, capacity);
+        cellY0 = Arrays.copyOf(cellY0 == null ? new int[0] : cellY0, capacity);
+        cellX1 = Arrays.copyOf(cellX1 == null ? new int[0] : cellX1, capacity);
+        cellY1 = Arrays.copyOf(cellY1 == null ? new int[0] : cellY1, capacity);
+        alive = Arrays.copyOf(alive == null ? new boolean[0] : alive, capacity);
+        stamp = Arrays.copyOf(stamp == null ? new int[0] : stamp, capacity);
+        freeIds = Arrays.copyOf(freeIds == null ? new int[0] : freeIds, capacity);
+        // Hand out low ids first
+        for (int id = capacity - 1; id >= old; id--) {
+            freeIds[freeIdCount++] = id;
+        }
+        bodyCapacity = capacity;
+    }
+
+    private void growNodes(int capacity) {
+        int old = nodeCapacity;
+        nodeBody = Arrays.copyOf(nodeBody == null ? new int[0] : nodeBody, capacity);
+        nodeCellX = Arrays.copyOf(nodeCellX == null ? new int[0] : nodeCellX, capacity);
+        nodeCellY = Arrays.copyOf(nodeCellY == null ? new int[0] : nodeCellY, capacity);
+        nodeNext = Arrays.copyOf(nodeNext == null ? new int[0] : nodeNext, capacity);
+        for (int node = capacity - 1; node >= old; node--) {
+            nodeNext[node] = freeNode;
+            freeNode = node;
+        }
+        nodeCapacity = capacity;
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.collision;
+
+import com.diakonovtomer.projektgrundlagen.Constant;
+import com.diakonovtomer.projektgrundlagen.entities.EntitiesObjects;
+import com.diakonovtomer.projektgrundlagen.level.ObjectLayer;
+import com.diakonovtomer.projektgrundlagen.level.TileChangeListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sparse index of the interactive objects (keys, spikes, doors) of an object layer.
+ * <p>
+ * Only a few cells of a level hold interactive objects, so they are kept in a
+ * sorted array of tile keys ({@code y * width + x}) and looked up by binary
+ * search instead of reading the object grid. Objects are also grouped by type.
+ * Replacing a tile of the object layer updates its single entry.
+ * </p>
+ *
+ * @author adiakonov
+ */
+public class TriggerIndex implements TileChangeListener {
+    private final ObjectLayer objectLayer;
+    private int[] keys = new int[0];
+    private EntitiesObjects[] objects = new EntitiesObjects[0];
+    /** Type each object was indexed under; {@link EntitiesObjects#clear()} changes the object's own type. */
+    private char[] types = new char[0];
+    private final Map<Character, List<EntitiesObjects>> byType = new HashMap<>();
+
+    /**
+     * Builds the index for an object layer. This is the only full scan of the layer.
+     *
+     * @param objectLayer the object layer
+     */
+    public TriggerIndex(ObjectLayer objectLayer) {
+        this.objectLayer = objectLayer;
+        int count = 0;
+        for (int y = 0; y < objectLayer.lengthY; y++) {
+            for (int x = 0; x < objectLayer.lengthX; x++) {
+                if (objectLayer.layer[y][x].isObject()) {
+                    count++;
+                }
+            }
+        }
+        keys = new int[count];
+        objects = new EntitiesObjects[count];
+        types = new char[count];
+        int i = 0;
+        for (int y = 0; y < objectLayer.lengthY; y++) { // row-major order keeps the keys sorted
+            for (int x = 0; x < objectLayer.lengthX; x++) {
+                EntitiesObjects object = objectLayer.layer[y][x];
+                if (object.isObject()) {
+                    keys[i] = y * objectLayer.lengthX + x;
+                    set(i, object);
+                    i++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Updates the entry of a replaced object tile: the entry is replaced, added
+     * or removed with a binary search, without scanning the layer.
+     */
+    @Override
+    public void onTileChanged(String type, int x, int y) {
+        if (!Constant.MAP_LAYER_NAME_OBJECT.equals(type)) {
+            return;
+        }
+        int key = y * objectLayer.lengthX + x;
+        int i = Arrays.binarySearch(keys, key);
+        EntitiesObjects object = objectLayer.layer[y][x];
+        if (i >= 0) {
+            byType.get(types[i]).remove(objects[i]);
+            if (object.isObject()) {
+                set(i, object);
+            } else {
+                remove(i);
+            }
+        } else if (object.isObject()) {
+            insert(-i - 1, key);
+            set(-i - 1, object);
+        }
+    }
+
+    private void set(int i, EntitiesObjects object) {
+        objects[i] = object;
+        types[i] = object.getParent();
+        byType.computeIfAbsent(types[i], t -> new ArrayList<>()).add(object);
+    }
+
+    private void insert(int i, int key) {
+        int count = keys.length;
+        int[] newKeys = new int[count + 1];
+        EntitiesObjects[] newObjects = new EntitiesObjects[count + 1];
+        char[] newTypes = new char[count + 1];
+        System.arraycopy(keys, 0, newKeys, 0, i);
+        System.arraycopy(objects, 0, newObjects, 0, i);
+        System.arraycopy(types, 0, newTypes, 0, i);
+        System.arraycopy(keys, i, newKeys, i + 1, count - i);
+        System.arraycopy(objects, i, newObjects, i + 1, count - i);
+        System.arraycopy(types, i, newTypes, i + 1, count - i);
+        newKeys[i] = key;
+        keys = newKeys;
+        objects = newObjects;
+        types = newTypes;
+    }
+
+    private void remove(int i) {
+        int count = keys.length;
+        int[] newKeys = new int[count - 1];
+        EntitiesObjects[] newObjects = new EntitiesObjects[count - 1];
+        char[] newTypes = new char[count - 1];
+        System.arraycopy(keys, 0, newKeys, 0, i);
+        System.arraycopy(objects, 0, newObjects, 0, i);
+        System.arraycopy(types, 0, newTypes, 0, i);
+        System.arraycopy(keys, i + 1, newKeys, i, count - i - 1);
+        System.arraycopy(objects, i + 1, newObjects, i, count - i - 1);
+        System.arraycopy(types, i + 1, newTypes, i, count - i - 1);
+        keys = newKeys;
+        objects = newObjects;
+        types = newTypes;
+    }
+
+    /**
+     * Returns the active interactive object on a tile.
+     *
+     * @param x the tile column
+     * @param y the tile row
+     * @return the object, or null if the tile holds no active interactive object
+     */
+    public EntitiesObjects objectAt(int x, int y) {
+        if (x < 0 || x >= objectLayer.lengthX || y < 0 || y >= objectLayer.lengthY) {
+            return null;
+        }
+        int i = Arrays.binarySearch(keys, y * objectLayer.lengthX + x);
+        if (i < 0 || !objects[i].isObject()) {
+            return null; // not indexed, or already used up (e.g. a collected key)
+        }
+        return objects[i];
+    }
+
+    /**
+     * Returns the active objects of one type. Like {@link #objectAt(int, int)},
+     * it leaves out objects that have been used up (e.g. collected keys).
+     *
+     * @param type the type symbol, e.g. {@link Constant#SPIKE}
+     * @return an unmodifiable list of objects
+     */
+    public List<EntitiesObjects> getByType(char type) {
+        List<EntitiesObjects> indexed = byType.get(type);
+        if (indexed == null) {
+            return Collections.emptyList();
+        }
+        List<EntitiesObjects> active = new ArrayList<>(indexed.size());
+        for (EntitiesObjects object : indexed) {
+            if (object.isObject()) {
+                active.add(object);
+            }
+        }
+        return Collections.unmodifiableList(active);
+    }
+
+    /**
+     * Returns the number of indexed objects.
+     *
+     * @return the object count
+     */
+    public int size() {
+        return keys.length;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.collision;
+
+import com.diakonovtomer.projektgrundlagen.entities.EntitiesObjects;
+
+/**
+ * Turns the interactive objects overlapped by a body each tick into
+ * enter, stay and exit events.
+ * <p>
+ * The objects overlapped in the previous tick are remembered, so an object
+ * gets {@link EntitiesObjects#onEnter(long)} in the first tick of contact,
+ * {@link EntitiesObjects#onStay(long)} while contact lasts and
+ * {@link EntitiesObjects#onExit(long)} in the first tick without contact.
+ * Exits are sent before stays and enters. The tracker does not allocate.
+ * </p>
+ * <p>
+ * Objects whose appearance changed while handling an event (e.g. a collected
+ * key) are collected during the update, so the simulation learns about changes
+ * without polling every object.
+ * </p>
+ *
+ * @author adiakonov
+ */
+public class TriggerTracker {
+    private EntitiesObjects[] previous = new EntitiesObjects[CollisionHandler.MAX_OBJECT_HITS];
+    private EntitiesObjects[] current = new EntitiesObjects[CollisionHandler.MAX_OBJECT_HITS];
+    private int previousCount = 0;
+    private int currentCount = 0;
+    private final EntitiesObjects[] changed = new EntitiesObjects[2 * CollisionHandler.MAX_OBJECT_HITS];
+    private int changedCount = 0;
+
+    /**
+     * Updates the contacts from the object tiles overlapped in this tick and sends the events.
+     *
+     * @param index the interactive object index
+     * @param hits  the overlapped tiles as {@code x, y} pairs
+     * @param count the number of pairs in {@code hits}
+     * @param tick  the current simulation tick
+     */
+    public void update(TriggerIndex index, int[] hits, int count, long tick) {
+        for (int i = 0; i < changedCount; i++) {
+            changed[i] = null;
+        }
+        changedCount = 0;
+        currentCount = 0;
+        for (int i = 0; i < count && currentCount < current.length; i++) {
+            EntitiesObjects object = index.objectAt(hits[2 * i], hits[2 * i + 1]);
+            if (object != null) {
+                current[currentCount++] = object;
+            }
+        }
+        for (int i = 0; i < previousCount; i++) {
+            if (!contains(current, currentCount, previous[i])) {
+                previous[i].onExit(tick);
+                collectChange(previous[i]);
+            }
+        }
+        for (int i = 0; i < currentCount; i++) {
+            if (contains(previous, previousCount, current[i])) {
+                current[i].onStay(tick);
+            } else {
+                current[i].onEnter(tick);
+            }
+            collectChange(current[i]);
+        }
+        EntitiesObjects[] swap = previous;
+        previous = current;
+        current = swap;
+        previousCount = currentCount;
+        for (int i = 0; i < current.length; i++) {
+            current[i] = null; // do not keep replaced objects alive
+        }
+    }
+
+    /**
+     * Returns the number of objects that changed during the last update.
+     *
+     * @return the number of changed objects
+     */
+    public int getChangedCount() {
+        return changedCount;
+    }
+
+    /**
+     * Returns an object that changed during the last update.
+     *
+     * @param i the position, from 0 to {@link #getChangedCount()} - 1
+     * @return the changed object
+     */
+    public EntitiesObjects getChanged(int i) {
+        return changed[i];
+    }
+
+    private void collectChange(EntitiesObjects object) {
+        if (object.consumeChanged()) {
+            changed[changedCount++] = object;
+        }
+    }
+
+    private static boolean contains(EntitiesObjects[] objects, int count, EntitiesObjects object) {
+        for (int i = 0; i < count; i++) {
+            if (objects[i] == object) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
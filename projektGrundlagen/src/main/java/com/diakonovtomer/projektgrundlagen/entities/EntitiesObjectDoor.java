@@ -5,9 +5,8 @@
 package com.diakonovtomer.projektgrundlagen.entities;
 
 import com.diakonovtomer.projektgrundlagen.Constant;
-import com.diakonovtomer.projektgrundlagen.game.GameRenderer;
+import com.diakonovtomer.projektgrundlagen.game.Renderer;
 import javafx.scene.paint.Color;
-import javafx.scene.image.Image;
 
 /**
  * Represents a door entity object in the game world.
@@ -22,8 +21,8 @@ import javafx.scene.image.Image;
  */
 public class EntitiesObjectDoor extends EntitiesObjects {
     
-    /** Image used to render the object. */
-    private Image image;
+    /** Atlas sprite used to render the object. */
+    private final String sprite;
     
     /**
      * Constructs a new {@code EntitiesObjectDoor} at the specified grid position.
@@ -36,7 +35,7 @@ public class EntitiesObjectDoor extends EntitiesObjects {
         this.color = Color.DIMGRAY;
         this.isSolid = false;
         this.isObject = true;
-        this.image = new Image(getClass().getResourceAsStream(Constant.ASSETS_URL + Constant.DOOR_PNG));
+        this.sprite = Constant.DOOR_PNG;
     }
     
     /**
@@ -50,24 +49,36 @@ public class EntitiesObjectDoor extends EntitiesObjects {
     }
     
     /**
-     * Called when a player touches or interacts with the door.
+     * Called when a player starts touching the door.
      * <p>
      * If the player has collected the required keys, this method sets
      * the door state to "open" in the game state.
+     *
+     * @param tick the current simulation tick
      */
-    public void onTouch() {
+    public void onEnter(long tick) {
         if (gameState.checkIsKeys()) {
              gameState.setDoor(true);
          }   
     }
     
+    /**
+     * Called while the player keeps touching the door, so the door also opens
+     * when the last key is collected in front of it.
+     *
+     * @param tick the current simulation tick
+     */
+    public void onStay(long tick) {
+        onEnter(tick);
+    }
+    
     /**
      * Renders the door object using the provided game renderer.
      *
      * @param renderer the renderer used to draw the door
      */
-    public void render(GameRenderer renderer) {
-        renderer.renderTileImage(image ,posX, posY, width, height );
+    public void render(Renderer renderer) {
+        renderer.renderSprite(sprite ,posX, posY, width, height );
     }
 
 }
\ No newline at end of file
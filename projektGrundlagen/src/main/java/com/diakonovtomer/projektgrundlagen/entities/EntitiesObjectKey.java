@@ -5,9 +5,8 @@
 package com.diakonovtomer.projektgrundlagen.entities;
 
 import com.diakonovtomer.projektgrundlagen.Constant;
-import com.diakonovtomer.projektgrundlagen.game.GameRenderer;
+import com.diakonovtomer.projektgrundlagen.game.Renderer;
 import javafx.scene.paint.Color;
-import javafx.scene.image.Image;
 
 /**
  * Represents a key object in the game world.
@@ -21,8 +20,8 @@ import javafx.scene.image.Image;
  */
 public class EntitiesObjectKey extends EntitiesObjects {
     
-    /** Image used to render the object. */
-    private Image image;
+    /** Atlas sprite used to render the object. */
+    private final String sprite;
     
     /**
      * Constructs a new {@code EntitiesObjectKey} at the specified grid position.
@@ -35,7 +34,7 @@ public class EntitiesObjectKey extends EntitiesObjects {
         this.color = Color.GOLD;
         this.isSolid = false;
         this.isObject = true;
-        this.image = new Image(getClass().getResourceAsStream(Constant.ASSETS_URL + Constant.KEY_PNG));
+        this.sprite = Constant.KEY_PNG;
     }
     
     /**
@@ -51,11 +50,13 @@ public class EntitiesObjectKey extends EntitiesObjects {
     }
     
     /**
-     * Called when the player touches or interacts with the key.
+     * Called when the player starts touching the key.
      * <p>
      * If the key hasn't already been used, the {@link #action()} method is invoked.
+     *
+     * @param tick the current simulation tick
      */
-    public void onTouch() {
+    public void onEnter(long tick) {
         if (!this.isUsed) {
             this.action();
         }
@@ -64,14 +65,12 @@ public class EntitiesObjectKey extends EntitiesObjects {
     /**
      * Renders the key object using the provided game renderer.
      * <p>
-     * If the key has already been collected, it will not be rendered.
+     * Collected keys are skipped by the level according to the published
+     * {@link com.diakonovtomer.projektgrundlagen.game.WorldSnapshot}.
      *
      * @param renderer the renderer used to draw the key
      */
-    public void render(GameRenderer renderer) {
-        if (isUsed) {
-            return; // Do not render if the key is already collected
-        }
-        renderer.renderTileImage(image ,posX, posY, width, height - 10);
+    public void render(Renderer renderer) {
+        renderer.renderSprite(sprite ,posX, posY, width, height - 10);
     }
 }
\ No newline at end of file
@@ -5,9 +5,10 @@
 package com.diakonovtomer.projektgrundlagen.entities;
 
 import com.diakonovtomer.projektgrundlagen.Constant;
-import com.diakonovtomer.projektgrundlagen.game.GameRenderer;
+import com.diakonovtomer.projektgrundlagen.game.Renderer;
+import com.diakonovtomer.projektgrundlagen.game.TextureAtlas;
+import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
-import javafx.scene.image.Image;
 
 /**
  * Represents a solid platform tile in the game world.
@@ -21,8 +22,8 @@ import javafx.scene.image.Image;
  */
 public class EntitiesObjectPlatform extends EntitiesObjects {
     
-    /** Image used to render the object. */
-    private Image image;
+    /** Atlas sprite used to render the object. */
+    private final String sprite;
     
     /**
      * Constructs a new {@code EntitiesObjectPlatform} at the specified grid position.
@@ -34,7 +35,7 @@ public class EntitiesObjectPlatform extends EntitiesObjects {
         super(x, y, Constant.PLATFORM);
         this.color = Color.DARKGREEN;
         this.isSolid = true;
-        this.image = new Image(getClass().getResourceAsStream(Constant.ASSETS_URL + Constant.PLATFORM_PNG));
+        this.sprite = Constant.PLATFORM_PNG;
     }
    
     /**
@@ -42,7 +43,19 @@ public class EntitiesObjectPlatform extends EntitiesObjects {
      *
      * @param renderer the renderer used to draw the platform
      */
-    public void render(GameRenderer renderer) {
-        renderer.renderTileImage(image ,posX, posY, width, height );
+    public void render(Renderer renderer) {
+        renderer.renderSprite(sprite ,posX, posY, width, height );
+    }
+    
+    /**
+     * Draws the platform image directly into the given graphics context.
+     *
+     * @param gc the graphics context to draw into
+     * @param x  the X position in pixels inside the target
+     * @param y  the Y position in pixels inside the target
+     */
+    @Override
+    public void renderTo(GraphicsContext gc, double x, double y) {
+        TextureAtlas.shared().draw(gc, sprite, x, y, width, height);
     }
 }
\ No newline at end of file
@@ -5,29 +5,27 @@
 package com.diakonovtomer.projektgrundlagen.entities;
 
 import com.diakonovtomer.projektgrundlagen.Constant;
-import com.diakonovtomer.projektgrundlagen.game.GameRenderer;
+import com.diakonovtomer.projektgrundlagen.game.Renderer;
 import javafx.scene.paint.Color;
-import javafx.scene.image.Image;
 
 /**
  * Represents a spike trap object in the game world.
  * <p>
- * When the player touches this object, it deals damage (unless in god mode)
- * and becomes temporarily inactive for a short period to avoid rapid repeated damage.
+ * When the player steps onto this object, it deals damage (unless in god mode).
+ * While the player stays on it, it deals damage again every
+ * {@link Constant#SPIKE_COOLDOWN_TICKS} simulation ticks; stepping off and back
+ * on within that time does not hurt again.
  * </p>
  * 
  * @author adiakonov
  */
 public class EntitiesObjectSpike extends EntitiesObjects {
     
-    /** Counter for tracking the spike's cooldown period. */
-    private int pauseTimerCounter;
+    /** Simulation tick of the last hit. */
+    private long lastHitTick;
     
-    /** Cooldown period before the spike can be triggered again. */
-    private int pauseTimer;
-    
-    /** Image used to render the object. */
-    private Image image;
+    /** Atlas sprite used to render the object. */
+    private final String sprite;
     
     /**
      * Constructs a new {@code EntitiesObjectSpike} at the specified grid position.
@@ -40,39 +38,44 @@ public class EntitiesObjectSpike extends EntitiesObjects {
         this.color = Color.CRIMSON;
         this.isSolid = false;
         this.isObject = true;
-        this.pauseTimerCounter = 0;
-        this.pauseTimer = 45; // sec
-        this.image = new Image(getClass().getResourceAsStream(Constant.ASSETS_URL + Constant.SPIKES_PNG));
+        this.lastHitTick = -Constant.SPIKE_COOLDOWN_TICKS;
+        this.sprite = Constant.SPIKES_PNG;
     }
     
     /**
      * Executes the action triggered when the spike activates.
      * <p>
-     * Reduces the player's life unless god mode is enabled. Marks the spike as used.
+     * Reduces the player's life unless god mode is enabled.
      */
     public void action() {
         if (!Constant.GOD_MODE) {
-            this.isUsed = true;
             gameState.changeLives(-1);
         }
     }
     
     /**
-     * Handles logic when the player comes into contact with the spike.
-     * <p>
-     * The spike triggers once on contact and becomes temporarily inactive to prevent
-     * continuous damage. Resets after 60 frames (~1 second).
+     * Hits the player when stepping onto the spike, unless the last hit was
+     * less than {@link Constant#SPIKE_COOLDOWN_TICKS} ticks ago.
+     *
+     * @param tick the current simulation tick
      */
-    public void onTouch() {
-        ++pauseTimerCounter;
-        if (pauseTimerCounter == 1) {
-            if (!this.isUsed){
-                this.action();
-            }
-        }
-        if (pauseTimerCounter == 60) {
-            pauseTimerCounter = 0;
-            this.isUsed = false;
+    public void onEnter(long tick) {
+        hitIfReady(tick);
+    }
+    
+    /**
+     * Hits the player again once the cooldown has passed while standing on the spike.
+     *
+     * @param tick the current simulation tick
+     */
+    public void onStay(long tick) {
+        hitIfReady(tick);
+    }
+    
+    private void hitIfReady(long tick) {
+        if (tick - lastHitTick >= Constant.SPIKE_COOLDOWN_TICKS) {
+            lastHitTick = tick;
+            this.action();
         }
     }
     
@@ -81,7 +84,7 @@ public class EntitiesObjectSpike extends EntitiesObjects {
      *
      * @param renderer the renderer used to draw the spike object
      */
-    public void render(GameRenderer renderer) {
-        renderer.renderTileImage(image ,posX, posY, width, height );
+    public void render(Renderer renderer) {
+        renderer.renderSprite(sprite ,posX, posY, width, height );
     }
 }
\ No newline at end of file
@@ -4,9 +4,10 @@
  */
 package com.diakonovtomer.projektgrundlagen.entities;
 
-import com.diakonovtomer.projektgrundlagen.game.GameRenderer;
+import com.diakonovtomer.projektgrundlagen.game.Renderer;
 import com.diakonovtomer.projektgrundlagen.game.GameState;
 import com.diakonovtomer.projektgrundlagen.Constant;
+import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 
 /**
@@ -40,6 +41,8 @@ public class EntitiesObjects {
     protected boolean isObject;
     /** Whether this entity has already been used (e.g. picked up, activated, etc.). */
     protected boolean isUsed;
+    /** Whether the appearance changed since it was last drawn. */
+    protected boolean changed;
     /** Color used to render the entity. */
     protected Color color;
     /** Reference to the game state (not initialized in constructor). */
@@ -129,6 +132,19 @@ public class EntitiesObjects {
         this.isSolid = false;
         this.isObject = false;
         this.isUsed = true;
+        this.changed = true;
+    }
+    
+    /**
+     * Returns whether the appearance changed since the last call and clears the flag.
+     * Only called by the {@link com.diakonovtomer.projektgrundlagen.collision.TriggerTracker}
+     * on the simulation thread, right after the event that may have changed it.
+     * @return true if the entity has to be repainted
+     */
+    public boolean consumeChanged() {
+        boolean result = changed;
+        changed = false;
+        return result;
     }
     
     /**
@@ -156,10 +172,32 @@ public class EntitiesObjects {
     }
     
     /**
-     * Called when the player touches or walks into the entity.
+     * Called in the first simulation tick in which the player touches the entity.
+     * Intended to be overridden.
+     *
+     * @param tick the current simulation tick
+     */
+    public void onEnter(long tick) {
+    
+    }
+    
+    /**
+     * Called in every further simulation tick in which the player keeps touching the entity.
+     * Intended to be overridden.
+     *
+     * @param tick the current simulation tick
+     */
+    public void onStay(long tick) {
+    
+    }
+    
+    /**
+     * Called in the first simulation tick after the player stopped touching the entity.
      * Intended to be overridden.
+     *
+     * @param tick the current simulation tick
      */
-    public void onTouch() {
+    public void onExit(long tick) {
     
     }
     
@@ -169,7 +207,22 @@ public class EntitiesObjects {
      *
      * @param renderer the renderer used to draw the entity
      */
-    public void render(GameRenderer renderer) {
+    public void render(Renderer renderer) {
         renderer.renderCell(color, posX, posY, width, height);
     }
+    
+    /**
+     * Draws the entity directly into a graphics context at the given position,
+     * bypassing the camera. Used to bake static tiles into off-screen images.
+     *
+     * @param gc the graphics context to draw into
+     * @param x  the X position in pixels inside the target
+     * @param y  the Y position in pixels inside the target
+     */
+    public void renderTo(GraphicsContext gc, double x, double y) {
+        if (color.getOpacity() > 0) {
+            gc.setFill(color);
+            gc.fillRect(x, y, width, height);
+        }
+    }
 }
\ No newline at end of file
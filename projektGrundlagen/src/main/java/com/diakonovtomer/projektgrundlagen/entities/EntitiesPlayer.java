@@ -5,12 +5,12 @@
 package com.diakonovtomer.projektgrundlagen.entities;
 
 import com.diakonovtomer.projektgrundlagen.collision.CollisionHandler;
+import com.diakonovtomer.projektgrundlagen.collision.TriggerTracker;
 import com.diakonovtomer.projektgrundlagen.Constant;
 import com.diakonovtomer.projektgrundlagen.game.GameState;
-import com.diakonovtomer.projektgrundlagen.game.GameRenderer;
+import com.diakonovtomer.projektgrundlagen.game.Renderer;
 import com.diakonovtomer.projektgrundlagen.level.Level;
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
 
 /**
  * Represents the player character in the game world.
@@ -40,6 +40,7 @@ public class EntitiesPlayer {
     
     private double x, y;              // Tile-aligned position (rounded)
     private double posX, posY;        // Precise position for physics and rendering
+    private double prevPosX, prevPosY; // Position at the start of the current tick (for interpolation)
     private double velocityX = 0;
     private double velocityY = 0;
     private boolean onGround = false;
@@ -47,10 +48,12 @@ public class EntitiesPlayer {
     private boolean isJumping = false;
     private double jumpStartY = 0;
     private final Level level;
-    private GameRenderer renderer;
-    private final Image imageL;
-    private final Image imageR;
+    private Renderer renderer;
+    private final String spriteL;
+    private final String spriteR;
     private final GameState gameState;
+    private final int[] objectHits = new int[CollisionHandler.MAX_OBJECT_HITS * 2]; // reused x, y pairs
+    private final TriggerTracker triggers = new TriggerTracker();
     
     /** Number of keys collected by the player */
     public int keysCollected = 0; // счётчик ключей
@@ -67,10 +70,12 @@ public class EntitiesPlayer {
         this.y = y;
         this.posX = x;
         this.posY = y;
+        this.prevPosX = x;
+        this.prevPosY = y;
         this.level = level;
         this.gameState = new GameState();
-        this.imageL = new Image(getClass().getResourceAsStream(Constant.ASSETS_URL + Constant.PLAYER_PNG_L));
-        this.imageR = new Image(getClass().getResourceAsStream(Constant.ASSETS_URL + Constant.PLAYER_PNG_R));   
+        this.spriteL = Constant.PLAYER_PNG_L;
+        this.spriteR = Constant.PLAYER_PNG_R;   
     }
     
     // --- Getters ---
@@ -81,46 +86,45 @@ public class EntitiesPlayer {
     
     public double getPosX() { return posX; }
     
-    public double getPosY() { return posX; }
+    public double getPosY() { return posY; }
     
     public double getVelocityX() { return velocityX; }
     
     public double getVelocityY() { return velocityY; }
     
-    public void getDirection() { }
+    public boolean getDirection() { return direction; }
+
+    public double getPrevPosX() { return prevPosX; }
+
+    public double getPrevPosY() { return prevPosY; }
+
+    /**
+     * Remembers the current position as the start of a new simulation tick.
+     * Must be called before the tick's movement is applied.
+     */
+    public void beginTick() {
+        prevPosX = posX;
+        prevPosY = posY;
+    }
     
     // --- Movement ---
     
     /**
-     * Moves the player to the left, applying collision detection.
-     * Uses reduced speed if mid-air.
-     *
-     * @param collisionHandler collision checker instance
+     * Moves the player to the left. Uses reduced speed if mid-air.
+     * Walls are resolved in {@link #updatePosition(CollisionHandler)}.
      */
-    public void moveLeft(CollisionHandler collisionHandler1) {
+    public void moveLeft() {
         direction = false;
-        double nextX = posX - (onGround ? Constant.MOVE_SPEED : Constant.MOVE_SPEED_FALL);
-        if (!collisionHandler1.isSolidAreaHorizontal(nextX, posY)) {
-            velocityX = onGround ? -Constant.MOVE_SPEED : -Constant.MOVE_SPEED_FALL;
-        } else {
-            velocityX = 0;
-        }
+        velocityX = onGround ? -Constant.MOVE_SPEED : -Constant.MOVE_SPEED_FALL;
     }
     
     /**
-     * Moves the player to the right, applying collision detection.
-     * Uses reduced speed if mid-air.
-     *
-     * @param collisionHandler collision checker instance
+     * Moves the player to the right. Uses reduced speed if mid-air.
+     * Walls are resolved in {@link #updatePosition(CollisionHandler)}.
      */
-    public void moveRight(CollisionHandler collisionHandler1) {
+    public void moveRight() {
         direction = true;
-        double nextX = posX + (onGround ? Constant.MOVE_SPEED : Constant.MOVE_SPEED_FALL);
-        if (!collisionHandler1.isSolidAreaHorizontal(nextX, posY)) {
-            velocityX = onGround ? Constant.MOVE_SPEED : Constant.MOVE_SPEED_FALL;
-        } else {
-            velocityX = 0;
-        }
+        velocityX = onGround ? Constant.MOVE_SPEED : Constant.MOVE_SPEED_FALL;
     }
     
     /**
@@ -155,11 +159,11 @@ public class EntitiesPlayer {
     }
     
     /**
-     * Applies gravity to the player each frame.
+     * Applies gravity to the player each simulation tick.
      * Caps fall speed at a maximum value.
      */
     public void applyGravity() {
-        velocityY += Constant.GRAVITY;
+        velocityY += Constant.GRAVITY * Constant.SIMULATION_STEP;
         if (velocityY > Constant.MAX_FALL_SPEED) velocityY = Constant.MAX_FALL_SPEED;
     }
        
@@ -179,22 +183,28 @@ public class EntitiesPlayer {
     
     /**
      * Updates the player position based on current velocity and collisions.
-     * Applies both X and Y axis checks separately.
+     * Each axis is swept separately and the player slides up to the contact
+     * point, so it neither stops short of walls and floors nor tunnels through
+     * them at high speed. Velocities are expressed per base-rate frame and
+     * scaled by {@link Constant#SIMULATION_STEP}.
      *
      * @param collisionHandler collision checker instance
      */
     public void updatePosition(CollisionHandler collisionHandler1) {
-        double nextX = posX + velocityX;
-        double nextY = posY + velocityY;
-          
+        double dx = velocityX * Constant.SIMULATION_STEP;
+        double dy = velocityY * Constant.SIMULATION_STEP;
+
         // X-axis collision
-        if (!collisionHandler1.isSolidArea(nextX, posY)) { // Проверка коллизий по X
-            posX = nextX;
+        double movedX = collisionHandler1.sweepX(posX, posY, dx); // Проверка коллизий по X
+        posX += movedX;
+        if (movedX != dx) {
+            velocityX = 0;
         }
 
         // Y-axis collision
-        if (!collisionHandler1.isSolidArea(posX, nextY)) { // Проверка коллизий по Y
-            posY = nextY;
+        double movedY = collisionHandler1.sweepY(posX, posY, dy); // Проверка коллизий по Y
+        posY += movedY;
+        if (movedY == dy) {
             onGround = false;
         } else {
             if (velocityY > 0) onGround = true; 
@@ -214,16 +224,25 @@ public class EntitiesPlayer {
        
     /**
      * Checks for collisions with interactive objects like keys, doors, etc.
+     * Every object overlapped by the hitbox is tracked, e.g. a key and a spike
+     * reached in the same tick, and receives enter, stay and exit events.
      *
      * @param collisionHandler collision checker instance
+     * @param tick             the current simulation tick
      */
-    public void checkObjectCollision(CollisionHandler collisionHandler) {
-        double nextX = posX + velocityX;
-        int[] collisionCheckObject = collisionHandler.collisionCheckObject((double) nextX, (double) posY);
-        
-        if (collisionCheckObject[0] != 0 || collisionCheckObject[1] != 0){
-            level.getObjectLayer().layer[collisionCheckObject[1]][collisionCheckObject[0]].onTouch();   
-        }
+    public void checkObjectCollision(CollisionHandler collisionHandler, long tick) {
+        double nextX = posX + velocityX * Constant.SIMULATION_STEP;
+        int hits = collisionHandler.collisionCheckObjects(nextX, posY, objectHits);
+        triggers.update(collisionHandler.getTriggerIndex(), objectHits, hits, tick);
+    }
+    
+    /**
+     * Returns the tracker of the interactive objects the player touches.
+     *
+     * @return the trigger tracker
+     */
+    public TriggerTracker getTriggerTracker() {
+        return triggers;
     }
     
     // --- Rendering ---
@@ -233,11 +252,22 @@ public class EntitiesPlayer {
      *
      * @param renderer the rendering system to use
      */
-    public void render(GameRenderer renderer) {
+    public void render(Renderer renderer) {
+        render(renderer, direction);
+    }
+
+    /**
+     * Renders the player sprite for the given direction, e.g. taken from a
+     * {@link com.diakonovtomer.projektgrundlagen.game.WorldSnapshot}.
+     *
+     * @param renderer  the rendering system to use
+     * @param direction true = facing right, false = facing left
+     */
+    public void render(Renderer renderer, boolean direction) {
         if (!direction) {
-            renderer.renderPlayerImg(imageL);          
+            renderer.renderPlayerSprite(spriteL);          
         } else {
-            renderer.renderPlayerImg(imageR);
+            renderer.renderPlayerSprite(spriteR);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,123 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.game;
+
+import com.diakonovtomer.projektgrundlagen.Constant;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import javafx.scene.image.Image;
+
+/**
+ * Central registry of decoded images, keyed by the {@code Constant.*_PNG} names.
+ * <p>
+ * Every image is decoded at most once and the same {@link Image} instance is
+ * handed out to all tiles, the player and the HUD. The registry can be warmed up
+ * in parallel at startup with {@link #preload(String...)} and reports how many
+ * images it holds and how much memory their decoded pixels occupy.
+ * </p>
+ * <p>
+ * Like {@link GameState}, this class uses static methods and fields and is
+ * accessible globally within the game.
+ * </p>
+ *
+ * @author adiakonov
+ */
+public final class AssetRegistry {
+
+    /** All image assets shipped in {@link Constant#ASSETS_URL}. */
+    public static final String[] ALL_ASSETS = {
+        Constant.GROUND_PNG,
+        Constant.PLATFORM_PNG,
+        Constant.KEY_PNG,
+        Constant.SPIKES_PNG,
+        Constant.DOOR_PNG,
+        Constant.PLAYER_PNG_L,
+        Constant.PLAYER_PNG_R,
+        Constant.UI_LIFE_FULL,
+        Constant.UI_LIFE_EMPTY,
+        Constant.UI_KEY_FULL,
+        Constant.UI_KEY_EMPTY,
+        Constant.BACKGROUND_PNG_01,
+        Constant.BACKGROUND_PNG_02
+    };
+
+    /** Decoded images keyed by asset name. */
+    private static final Map<String, Image> images = new ConcurrentHashMap<>();
+
+    /**
+     * Private constructor prevents instantiation of this class.
+     */
+    private AssetRegistry() {}
+
+    /**
+     * Returns the shared image for the given asset name, decoding it on first use.
+     *
+     * @param name the asset file name (e.g. {@link Constant#GROUND_PNG})
+     * @return the decoded image
+     * @throws NullPointerException if the asset does not exist
+     */
+    public static Image getImage(String name) {
+        return images.computeIfAbsent(name, AssetRegistry::load);
+    }
+
+    /**
+     * Decodes all {@link #ALL_ASSETS} in parallel.
+     */
+    public static void preload() {
+        preload(ALL_ASSETS);
+    }
+
+    /**
+     * Decodes the given assets in parallel so later lookups never block on decoding.
+     *
+     * @param names the asset file names to decode
+     */
+    public static void preload(String... names) {
+        Arrays.stream(names).parallel().forEach(AssetRegistry::getImage);
+    }
+
+    /**
+     * Returns the number of decoded images held by the registry.
+     *
+     * @return the number of images
+     */
+    public static int getLoadedCount() {
+        return images.size();
+    }
+
+    /**
+     * Returns the approximate memory used by the decoded pixels (4 bytes per pixel).
+     *
+     * @return the size of all decoded images in bytes
+     */
+    public static long getLoadedBytes() {
+        long bytes = 0;
+        for (Image image : images.values()) {
+            bytes += (long) image.getWidth() * (long) image.getHeight() * 4;
+        }
+        return bytes;
+    }
+
+    /**
+     * Releases all decoded images.
+     */
+    public static void clear() {
+        images.clear();
+    }
+
+    /**
+     * Decodes a single image from the assets folder.
+     *
+     * @param name the asset file name
+     * @return the decoded image
+     */
+    private static Image load(String name) {
+        InputStream is = AssetRegistry.class.getResourceAsStream(Constant.ASSETS_URL + name);
+        return new Image(Objects.requireNonNull(is, "Asset not found: " + name));
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.game;
+
+/**
+ * Collects the screen areas that changed since the last frame.
+ * <p>
+ * Rectangles are given in screen pixels. Overlapping rectangles are merged, and
+ * once more than {@link #MAX_REGIONS} separate areas are marked the tracker falls
+ * back to a full repaint. The storage is preallocated, so marking never allocates.
+ * </p>
+ *
+ * @author adiakonov
+ */
+public class DirtyRegionTracker {
+
+    /** Maximum number of separate rectangles before falling back to a full repaint. */
+    public static final int MAX_REGIONS = 16;
+
+    private final double[] x = new double[MAX_REGIONS];
+    private final double[] y = new double[MAX_REGIONS];
+    private final double[] w = new double[MAX_REGIONS];
+    private final double[] h = new double[MAX_REGIONS];
+
+    /** Number of rectangles marked. */
+    private int count = 0;
+
+    /** Whether the whole screen has to be repainted. */
+    private boolean full = true;
+
+    /**
+     * Marks a rectangle of the screen as changed.
+     *
+     * @param rx     X in screen pixels
+     * @param ry     Y in screen pixels
+     * @param width  width in pixels
+     * @param height height in pixels
+     */
+    public void mark(double rx, double ry, double width, double height) {
+        if (full || width <= 0 || height <= 0) {
+            return;
+        }
+        // Merge with an overlapping rectangle if there is one
+        for (int i = 0; i < count; i++) {
+            if (rx < x[i] + w[i] && rx + width > x[i] && ry < y[i] + h[i] && ry + height > y[i]) {
+                double minX = Math.min(rx, x[i]);
+                double minY = Math.min(ry, y[i]);
+                w[i] = Math.max(rx + width, x[i] + w[i]) - minX;
+                h[i] = Math.max(ry + height, y[i] + h[i]) - minY;
+                x[i] = minX;
+                y[i] = minY;
+                return;
+            }
+        }
+        if (count == MAX_REGIONS) {
+            markAll();
+            return;
+        }
+        x[count] = rx;
+        y[count] = ry;
+        w[count] = width;
+        h[count] = height;
+        count++;
+    }
+
+    /**
+     * Requests a repaint of the whole screen (e.g. because the camera moved).
+     */
+    public void markAll() {
+        full = true;
+        count = 0;
+    }
+
+    /**
+     * Returns whether the whole screen has to be repainted.
+     *
+     * @return true for a full repaint
+     */
+    public boolean isFull() {
+        return full;
+    }
+
+    /**
+     * Returns whether nothing changed since the last frame.
+     *
+     * @return true if there is nothing to repaint
+     */
+    public boolean isEmpty() {
+        return !full && count == 0;
+    }
+
+    /**
+     * Returns the number of marked rectangles (0 for a full repaint).
+     *
+     * @return the number of rectangles
+     */
+    public int size() {
+        return count;
+    }
+
+    public double getX(int i) { return x[i]; }
+
+    public double getY(int i) { return y[i]; }
+
+    public double getWidth(int i) { return w[i]; }
+
+    public double getHeight(int i) { return h[i]; }
+
+    /**
+     * Checks whether a rectangle intersects any marked area.
+     *
+     * @param rx     X in screen pixels
+     * @param ry     Y in screen pixels
+     * @param width  width in pixels
+     * @param height height in pixels
+     * @return true if the rectangle has to be repainted
+     */
+    public boolean intersects(double rx, double ry, double width, double height) {
+        if (full) {
+            return true;
+        }
+        for (int i = 0; i < count; i++) {
+            if (rx < x[i] + w[i] && rx + width > x[i] && ry < y[i] + h[i] && ry + height > y[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Forgets all marked areas after a frame has been painted.
+     */
+    public void reset() {
+        full = false;
+        count = 0;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.game;
+
+import com.diakonovtomer.projektgrundlagen.Constant;
+
+/**
+ * Chooses the {@link QualityTier} from the measured cost of recent frames.
+ * <p>
+ * The cost of every frame is fed into {@link #record(long)} and smoothed with an
+ * exponential moving average. When the average stays above
+ * {@link Constant#QUALITY_DOWNGRADE_RATIO} of the frame budget for
+ * {@link Constant#QUALITY_DOWNGRADE_FRAMES} frames, the scheduler steps one tier
+ * down; when it stays below {@link Constant#QUALITY_UPGRADE_RATIO} for
+ * {@link Constant#QUALITY_UPGRADE_FRAMES} frames, it steps one tier up. Tier
+ * changes are logged and counted.
+ * </p>
+ *
+ * @author adiakonov
+ */
+public class FrameBudgetScheduler {
+    private final long budgetNanos;
+    private QualityTier tier = QualityTier.FULL;
+    private double averageNanos = 0;
+    private int framesOver = 0;
+    private int framesUnder = 0;
+
+    private long frames = 0;
+    private long overBudgetFrames = 0;
+    private int tierChanges = 0;
+    private final long[] framesPerTier = new long[QualityTier.VALUES.length];
+
+    /**
+     * Creates a scheduler for the given frame budget.
+     *
+     * @param budgetNanos the time a frame may take, in nanoseconds
+     */
+    public FrameBudgetScheduler(long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+    }
+
+    /**
+     * Records the cost of a frame and adjusts the tier if needed.
+     *
+     * @param frameNanos the time the frame took, in nanoseconds
+     * @return true if the tier changed
+     */
+    public boolean record(long frameNanos) {
+        frames++;
+        framesPerTier[tier.ordinal()]++;
+        if (frameNanos > budgetNanos) {
+            overBudgetFrames++;
+        }
+        averageNanos = frames == 1 ? frameNanos : averageNanos + (frameNanos - averageNanos) / 8;
+
+        if (averageNanos > budgetNanos * Constant.QUALITY_DOWNGRADE_RATIO) {
+            framesOver++;
+            framesUnder = 0;
+        } else if (averageNanos < budgetNanos * Constant.QUALITY_UPGRADE_RATIO) {
+            framesUnder++;
+            framesOver = 0;
+        } else {
+            framesOver = 0;
+            framesUnder = 0;
+        }
+
+        if (framesOver >= Constant.QUALITY_DOWNGRADE_FRAMES && tier.lower() != tier) {
+            return changeTier(tier.lower());
+        }
+        if (framesUnder >= Constant.QUALITY_UPGRADE_FRAMES && tier.higher() != tier) {
+            return changeTier(tier.higher());
+        }
+        return false;
+    }
+
+    /**
+     * Switches to another tier and logs the change.
+     */
+    private boolean changeTier(QualityTier next) {
+        System.out.println("Quality tier: " + tier + " -> " + next
+                + " (average frame " + Math.round(averageNanos / 1000) + " us, budget "
+                + budgetNanos / 1000 + " us)");
+        tier = next;
+        tierChanges++;
+        framesOver = 0;
+        framesUnder = 0;
+        return true;
+    }
+
+    /**
+     * Returns the current tier.
+     *
+     * @return the tier the renderer should use
+     */
+    public QualityTier getTier() {
+        return tier;
+    }
+
+    /**
+     * Returns the smoothed frame cost.
+     *
+     * @return the moving average in nanoseconds
+     */
+    public double getAverageNanos() {
+        return averageNanos;
+    }
+
+    public long getBudgetNanos() { return budgetNanos; }
+
+    public long getFrames() { return frames; }
+
+    public long getOverBudgetFrames() { return overBudgetFrames; }
+
+    public int getTierChanges() { return tierChanges; }
+
+    /**
+     * Returns how many frames were rendered at a tier.
+     *
+     * @param tier the tier
+     * @return the number of frames
+     */
+    public long getFramesAt(QualityTier tier) {
+        return framesPerTier[tier.ordinal()];
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.game;
+
+import com.diakonovtomer.projektgrundlagen.Constant;
+
+/**
+ * Decides which animation pulses of the {@link GameLoop} are rendered.
+ * <p>
+ * Frames are limited to a maximum rate, and to a lower idle rate once nothing
+ * visible has changed for a number of frames. A change of the input state wakes
+ * the loop up from idle rendering; with late input sampling it is also shown
+ * on the very next pulse, regardless of the cap. Key events that do not change
+ * the input state, such as auto-repeats of a held key, do not count.
+ * </p>
+ *
+ * @author adiakonov
+ */
+public class FramePacer {
+    private final int capFps;
+    private final int idleFps;
+    private final int idleAfterFrames;
+    private final boolean lateSampling;
+
+    /** Time of the last rendered frame, or 0 before the first one. */
+    private long lastRenderNanos = 0;
+    /** Number of consecutive rendered frames in which nothing visible changed. */
+    private int idleFrames = 0;
+    /** Set when the input state changed since the last rendered frame. */
+    private boolean inputActivity = false;
+
+    /**
+     * Creates a pacer configured from {@link Constant}.
+     */
+    public FramePacer() {
+        this(Constant.FRAME_CAP_FPS, Constant.IDLE_FPS, Constant.IDLE_AFTER_FRAMES, Constant.INPUT_LATE_SAMPLING);
+    }
+
+    /**
+     * Creates a pacer.
+     *
+     * @param capFps          the maximum frame rate, or 0 for none
+     * @param idleFps         the frame rate while idle, or 0 for none
+     * @param idleAfterFrames the number of unchanged frames after which the loop is idle
+     * @param lateSampling    whether an input change is rendered without waiting for the cap
+     */
+    public FramePacer(int capFps, int idleFps, int idleAfterFrames, boolean lateSampling) {
+        this.capFps = capFps;
+        this.idleFps = idleFps;
+        this.idleAfterFrames = idleAfterFrames;
+        this.lateSampling = lateSampling;
+    }
+
+    /**
+     * Reports that the input state changed (an action was pressed or released).
+     */
+    public void inputChanged() {
+        inputActivity = true;
+    }
+
+    /**
+     * Decides whether this pulse is skipped to respect the frame cap or the idle rate.
+     *
+     * @param now the timestamp of the current pulse in nanoseconds
+     * @return true if nothing should be simulated or rendered this pulse
+     */
+    public boolean skipFrame(long now) {
+        if (inputActivity) {
+            inputActivity = false;
+            idleFrames = 0;
+            if (lateSampling) {
+                lastRenderNanos = now; // an input change is shown right away, regardless of the cap
+                return false;
+            }
+        }
+        int fps = idleFrames >= idleAfterFrames ? idleFps : capFps;
+        if (fps > 0 && lastRenderNanos != 0) {
+            // 1 ms of slack so a cap equal to the display rate does not drop frames to jitter
+            long interval = 1_000_000_000L / fps - 1_000_000L;
+            if (now - lastRenderNanos < interval) {
+                return true;
+            }
+        }
+        lastRenderNanos = now;
+        return false;
+    }
+
+    /**
+     * Reports whether anything visible changed in the frame just rendered.
+     *
+     * @param changed true if the frame differs from the previous one
+     */
+    public void frameRendered(boolean changed) {
+        idleFrames = changed ? 0 : idleFrames + 1;
+    }
+
+    /**
+     * Forgets the last frame, e.g. after the loop was suspended.
+     */
+    public void reset() {
+        lastRenderNanos = 0;
+        idleFrames = 0;
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.game;
+
+import com.diakonovtomer.projektgrundlagen.util.LatencyHistogram;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Records how long each phase of a frame takes.
+ * <p>
+ * {@link GameLoop} calls {@link #beginFrame()} and then {@link #mark(Phase)} at the
+ * end of each phase; the time since the previous mark goes into the phase's
+ * {@link LatencyHistogram}. The histograms are preallocated, so recording does
+ * not allocate. Percentiles are available per phase, as a text summary for the
+ * on-screen readout and as a CSV file.
+ * </p>
+ *
+ * @author adiakonov
+ */
+public class FrameProfiler {
+
+    /**
+     * Measured phases of a frame. {@link #INPUT} is the part of {@link #UPDATE}
+     * spent draining input events; {@link #FLUSH} is the submission of the recorded
+     * draw commands to the canvases; {@link #FRAME} covers the whole frame.
+     * <p>
+     * {@link #INPUT_LATENCY} and {@link #JUMP_LATENCY} are not phases: they measure
+     * the time from a key event (any event, or a jump press) to the submission of
+     * the first frame that reflects it.
+     * </p>
+     */
+    public enum Phase {
+        INPUT, UPDATE, CAMERA, PARALLAX, GROUND, OBJECTS, PLAYER, FLUSH, UI, FRAME,
+        INPUT_LATENCY, JUMP_LATENCY;
+
+        /** Cached result of {@link #values()}, which allocates a new array on every call. */
+        static final Phase[] VALUES = values();
+    }
+
+    private final LatencyHistogram[] histograms = new LatencyHistogram[Phase.VALUES.length];
+    private final StringBuilder summary = new StringBuilder(512);
+    private long frameStart;
+    private long lastMark;
+
+    /**
+     * Creates a profiler with an empty histogram per phase.
+     */
+    public FrameProfiler() {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Starts timing a frame.
+     */
+    public void beginFrame() {
+        frameStart = System.nanoTime();
+        lastMark = frameStart;
+    }
+
+    /**
+     * Ends the given phase: records the time since the previous mark.
+     *
+     * @param phase the phase that just finished
+     */
+    public void mark(Phase phase) {
+        long now = System.nanoTime();
+        histograms[phase.ordinal()].record(now - lastMark);
+        lastMark = now;
+    }
+
+    /**
+     * Records a duration measured elsewhere (e.g. by the simulation) for a phase.
+     *
+     * @param phase the phase
+     * @param nanos the duration in nanoseconds
+     */
+    public void record(Phase phase, long nanos) {
+        histograms[phase.ordinal()].record(nanos);
+    }
+
+    /**
+     * Ends the frame: records the whole frame duration.
+     *
+     * @return the frame duration in nanoseconds
+     */
+    public long endFrame() {
+        long nanos = System.nanoTime() - frameStart;
+        histograms[Phase.FRAME.ordinal()].record(nanos);
+        return nanos;
+    }
+
+    /**
+     * Returns the histogram of a phase.
+     *
+     * @param phase the phase
+     * @return the histogram, in nanoseconds
+     */
+    public LatencyHistogram getHistogram(Phase phase) {
+        return histograms[phase.ordinal()];
+    }
+
+    /**
+     * Returns a percentile of a phase.
+     *
+     * @param phase      the phase
+     * @param percentile the percentile, between 0 and 100
+     * @return the duration in nanoseconds
+     */
+    public long getPercentile(Phase phase, double percentile) {
+        return histograms[phase.ordinal()].getPercentile(percentile);
+    }
+
+    /**
+     * Clears all histograms.
+     */
+    public void reset() {
+        for (LatencyHistogram histogram : histograms) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Returns a multi-line summary (p50/p95/p99/max in microseconds) of all
+     * phases that have samples. The builder is reused between calls.
+     *
+     * @return the summary text
+     */
+    public String summary() {
+        summary.setLength(0);
+        summary.append("phase            p50    p95    p99    max (us)");
+        for (Phase phase : Phase.VALUES) {
+            LatencyHistogram h = histograms[phase.ordinal()];
+            if (h.getCount() == 0) {
+                continue;
+            }
+            summary.append('\n').append(phase.name());
+            for (int i = phase.name().length(); i < 14; i++) {
+                summary.append(' ');
+            }
+            appendMicros(h.getPercentile(50));
+            appendMicros(h.getPercentile(95));
+            appendMicros(h.getPercentile(99));
+            appendMicros(h.getMax());
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Appends a right-aligned duration in microseconds to the summary.
+     */
+    private void appendMicros(long nanos) {
+        String value = Long.toString(nanos / 1000);
+        for (int i = value.length(); i < 7; i++) {
+            summary.append(' ');
+        }
+        summary.append(value);
+    }
+
+    /**
+     * Writes count, mean, p50, p95, p99 and max (nanoseconds) per phase as CSV.
+     *
+     * @param file the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void writeCsv(Path file) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+            out.println("phase,count,mean_ns,p50_ns,p95_ns,p99_ns,max_ns");
+            for (Phase phase : Phase.VALUES) {
+                LatencyHistogram h = histograms[phase.ordinal()];
+                out.println(phase.name() + "," + h.getCount() + "," + Math.round(h.getMean()) + ","
+                        + h.getPercentile(50) + "," + h.getPercentile(95) + ","
+                        + h.getPercentile(99) + "," + h.getMax());
+            }
+        }
+    }
+}
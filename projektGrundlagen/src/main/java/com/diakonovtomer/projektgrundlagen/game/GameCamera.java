@@ -96,6 +96,66 @@ public class GameCamera {
         return Constant.GAMEHEIGHT / 2;
     }
 
+    /**
+     * Returns the first tile column (inclusive) that is visible through the camera,
+     * widened by {@link Constant#CAMERA_TILE_MARGIN} tiles and clamped to the level.
+     *
+     * @param lengthX the number of tile columns in the layer being rendered
+     * @return the index of the first column to render
+     */
+    public int getFirstVisibleTileX(int lengthX) {
+        int first = (int) Math.floor(offsetX / tileSize) - Constant.CAMERA_TILE_MARGIN;
+        return clamp(first, 0, lengthX);
+    }
+
+    /**
+     * Returns the last tile column (exclusive) that is visible through the camera,
+     * widened by {@link Constant#CAMERA_TILE_MARGIN} tiles and clamped to the level.
+     *
+     * @param lengthX the number of tile columns in the layer being rendered
+     * @return the index after the last column to render
+     */
+    public int getLastVisibleTileX(int lengthX) {
+        int last = (int) Math.ceil((offsetX + screenWidth) / tileSize) + Constant.CAMERA_TILE_MARGIN;
+        return clamp(last, 0, lengthX);
+    }
+
+    /**
+     * Returns the first tile row (inclusive) that is visible through the camera,
+     * widened by {@link Constant#CAMERA_TILE_MARGIN} tiles and clamped to the level.
+     *
+     * @param lengthY the number of tile rows in the layer being rendered
+     * @return the index of the first row to render
+     */
+    public int getFirstVisibleTileY(int lengthY) {
+        int first = (int) Math.floor(offsetY / tileSize) - Constant.CAMERA_TILE_MARGIN;
+        return clamp(first, 0, lengthY);
+    }
+
+    /**
+     * Returns the last tile row (exclusive) that is visible through the camera,
+     * widened by {@link Constant#CAMERA_TILE_MARGIN} tiles and clamped to the level.
+     *
+     * @param lengthY the number of tile rows in the layer being rendered
+     * @return the index after the last row to render
+     */
+    public int getLastVisibleTileY(int lengthY) {
+        int last = (int) Math.ceil((offsetY + screenHeight) / tileSize) + Constant.CAMERA_TILE_MARGIN;
+        return clamp(last, 0, lengthY);
+    }
+
+    /**
+     * Clamps a tile index to the given range.
+     *
+     * @param value the value to clamp
+     * @param min   the lower bound
+     * @param max   the upper bound
+     * @return the clamped value
+     */
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
     /**
      * Returns the current horizontal offset of the camera.
      *
@@ -4,14 +4,21 @@
  */
 package com.diakonovtomer.projektgrundlagen.game;
 
+import com.diakonovtomer.projektgrundlagen.Constant;
 import com.diakonovtomer.projektgrundlagen.entities.EntitiesPlayer;
-import com.diakonovtomer.projektgrundlagen.collision.CollisionHandler;
+import com.diakonovtomer.projektgrundlagen.input.InputBindings;
+import com.diakonovtomer.projektgrundlagen.input.InputState;
 import com.diakonovtomer.projektgrundlagen.level.Level;                                                   
+import com.diakonovtomer.projektgrundlagen.game.FrameProfiler.Phase;
+import java.io.IOException;
+import java.nio.file.Path;
 import javafx.animation.AnimationTimer;
+import javafx.beans.value.ChangeListener;
 import javafx.scene.Scene;
-import javafx.scene.canvas.GraphicsContext;
-import java.util.HashSet;
-import java.util.Set;
+import javafx.scene.control.Label;
+import javafx.scene.input.KeyCode;
+import javafx.stage.Stage;
+import javafx.stage.Window;
 
 /**
  * GameLoop handles the core update and rendering cycle of the game.
@@ -22,105 +29,383 @@ import java.util.Set;
  * </p>
  *
  * <p>
+ * The simulation ({@link GameSimulation}) runs at the fixed rate
+ * {@link Constant#SIMULATION_TICK_RATE}, independent of the display refresh rate.
+ * By default it is advanced from this loop with the elapsed frame time; with
+ * {@link Constant#SIMULATION_THREADED} it runs on its own thread and this loop only
+ * draws the latest {@link WorldSnapshot}. In both cases the player and camera are
+ * rendered interpolated between the last two ticks.
+ * </p>
+ *
+ * <p>
+ * The cost of every frame is passed to a {@link FrameBudgetScheduler}, which
+ * lowers the {@link QualityTier} of the renderer when frames run over budget.
+ * </p>
+ *
+ * <p>
+ * Frames are paced by {@link Constant#FRAME_CAP_FPS}; after
+ * {@link Constant#IDLE_AFTER_FRAMES} frames without any visible change the loop
+ * only renders at {@link Constant#IDLE_FPS}. While the window is unfocused or
+ * minimized, simulation and rendering are suspended
+ * ({@link Constant#SUSPEND_WHEN_INACTIVE}).
+ * </p>
+ *
+ * <p>
  * The loop stops automatically when the game is either won or lost.
  * </p>
  *
  * @author adiakonov
  */
 public class GameLoop extends AnimationTimer {
-    private final GameRenderer renderer;
-    private final GraphicsContext gc;
+    private final Renderer renderer;
     private final EntitiesPlayer entitiesPlayer;
-    private final Set<String> keys = new HashSet<>();
+    private final InputState input = new InputState(InputBindings.defaults());
     private final Level level;
-    private final CollisionHandler collisionHandler;
+    private final GameSimulation simulation;
     private final GameCamera camera;
+    private boolean lastDirection;
+
+    /** Timestamp of the previous frame, or 0 before the first frame. */
+    private long lastFrameNanos = 0;
+
+    private final FrameProfiler profiler = new FrameProfiler();
+    private final FrameBudgetScheduler scheduler = new FrameBudgetScheduler(Constant.FRAME_BUDGET_NANOS);
+    private Label profilerReadout;
+    private int framesSinceReadout = 0;
+    private boolean profileWritten = false;
+
+    private final FramePacer pacer = new FramePacer();
+    private double lastRenderX = Double.NaN;
+    private double lastRenderY = Double.NaN;
+
+    /** Lives and keys currently shown by the HUD, or -1 before the first paint. */
+    private int hudLives = -1;
+    private int hudKeys = -1;
+
+    /** Window whose focus and iconified state suspend the loop, if any. */
+    private Window watchedWindow;
+    private final ChangeListener<Boolean> activityListener = (obs, oldValue, newValue) -> updateSuspended();
+    private final ChangeListener<Window> windowListener = (obs, oldWindow, newWindow) -> watchWindow(newWindow);
+    private final Scene scene;
+    private boolean suspended = false;
+    private boolean finished = false;
 
     /**
      * Constructs the GameLoop with all required dependencies.
      *
      * @param scene the JavaFX scene to capture key input from
-     * @param gc the graphics context used for drawing
      * @param renderer the object responsible for rendering visuals
      * @param camera the game camera that follows the player
      * @param level1 the current game level
      * @param entitiesPlayer the player entity
      */
-    public GameLoop(Scene scene, GraphicsContext gc, GameRenderer renderer, GameCamera camera, Level level, EntitiesPlayer entitiesPlayer) {
-        this.gc = gc;
+    public GameLoop(Scene scene, Renderer renderer, GameCamera camera, Level level, EntitiesPlayer entitiesPlayer) {
         this.level = level;
         this.entitiesPlayer = entitiesPlayer;
         this.camera = camera;
         this.renderer = renderer;
-        this.collisionHandler = new CollisionHandler(level);
-        scene.setOnKeyPressed(e -> keys.add(e.getCode().toString()));
-        scene.setOnKeyReleased(e -> keys.remove(e.getCode().toString()));
+        this.lastDirection = entitiesPlayer.getDirection();
+        this.simulation = new GameSimulation(level, entitiesPlayer, input);
+        this.scene = scene;
+        scene.setOnKeyPressed(e -> {
+            if (selectTimeScale(e.getCode()) || input.keyPressed(e.getCode(), System.nanoTime())) {
+                pacer.inputChanged(); // auto-repeats of held keys do not change anything
+            }
+        });
+        scene.setOnKeyReleased(e -> {
+            if (input.keyReleased(e.getCode(), System.nanoTime())) {
+                pacer.inputChanged();
+            }
+        });
+        if (Constant.SUSPEND_WHEN_INACTIVE) {
+            scene.windowProperty().addListener(windowListener);
+            watchWindow(scene.getWindow());
+        }
+    }
+
+    /**
+     * Starts the loop and, if {@link Constant#SIMULATION_THREADED} is set,
+     * the simulation thread.
+     */
+    @Override
+    public void start() {
+        if (Constant.SIMULATION_THREADED) {
+            simulation.start();
+        }
+        super.start();
+    }
+
+    /**
+     * Stops the loop and the simulation thread, if any, and writes the frame
+     * profile to {@link Constant#PROFILER_CSV_FILE} if configured.
+     */
+    @Override
+    public void stop() {
+        finished = true;
+        scene.windowProperty().removeListener(windowListener);
+        watchWindow(null);
+        super.stop();
+        simulation.stop();
+        if (Constant.PROFILER_CSV_FILE != null && !profileWritten) {
+            profileWritten = true;
+            try {
+                profiler.writeCsv(Path.of(Constant.PROFILER_CSV_FILE));
+            } catch (IOException e) {
+                System.err.println("Failed to write frame profile: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Follows the focus and iconified state of the window showing the scene.
+     *
+     * @param window the new window, or null to stop watching
+     */
+    private void watchWindow(Window window) {
+        if (watchedWindow != null) {
+            watchedWindow.focusedProperty().removeListener(activityListener);
+            if (watchedWindow instanceof Stage stage) {
+                stage.iconifiedProperty().removeListener(activityListener);
+            }
+        }
+        watchedWindow = window;
+        if (window != null) {
+            window.focusedProperty().addListener(activityListener);
+            if (window instanceof Stage stage) {
+                stage.iconifiedProperty().addListener(activityListener);
+            }
+        }
+    }
+
+    /**
+     * Suspends the loop while the watched window is unfocused or minimized and
+     * resumes it afterwards.
+     */
+    private void updateSuspended() {
+        if (finished || watchedWindow == null) {
+            return;
+        }
+        boolean inactive = !watchedWindow.isFocused()
+                || (watchedWindow instanceof Stage stage && stage.isIconified());
+        if (inactive && !suspended) {
+            suspended = true;
+            super.stop();
+            simulation.stop();
+            input.releaseAll(System.nanoTime()); // release events are not delivered while unfocused
+        } else if (!inactive && suspended) {
+            suspended = false;
+            lastFrameNanos = 0; // do not simulate the time spent suspended
+            pacer.reset();
+            if (Constant.SIMULATION_THREADED) {
+                simulation.start();
+            }
+            super.start();
+        }
+    }
+
+    /**
+     * Returns whether the loop is suspended because the window is inactive.
+     *
+     * @return true while suspended
+     */
+    public boolean isSuspended() {
+        return suspended;
+    }
+
+    /**
+     * Sets how fast the simulation runs compared to real time.
+     *
+     * @param timeScale the time scale, see {@link GameSimulation#setTimeScale(double)}
+     */
+    public void setTimeScale(double timeScale) {
+        simulation.setTimeScale(timeScale);
+    }
+
+    /**
+     * Switches to one of the {@link Constant#TIME_SCALE_PRESETS} with the keys 1 to 4.
+     *
+     * @param key the pressed key
+     * @return true if the key selected a time scale
+     */
+    private boolean selectTimeScale(KeyCode key) {
+        int preset = switch (key) {
+            case DIGIT1 -> 0;
+            case DIGIT2 -> 1;
+            case DIGIT3 -> 2;
+            case DIGIT4 -> 3;
+            default -> -1;
+        };
+        if (preset < 0 || preset >= Constant.TIME_SCALE_PRESETS.length) {
+            return false;
+        }
+        setTimeScale(Constant.TIME_SCALE_PRESETS[preset]);
+        return true;
+    }
+
+    /**
+     * Returns the simulation driven by this loop.
+     *
+     * @return the game simulation
+     */
+    public GameSimulation getSimulation() {
+        return simulation;
+    }
+
+    /**
+     * Returns the frame profiler.
+     *
+     * @return the profiler recording the phases of every frame
+     */
+    public FrameProfiler getProfiler() {
+        return profiler;
+    }
+
+    /**
+     * Returns the scheduler choosing the rendering quality.
+     *
+     * @return the frame budget scheduler
+     */
+    public FrameBudgetScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Sets the label that shows the profiler summary, updated every
+     * {@link Constant#PROFILER_READOUT_FRAMES} frames.
+     *
+     * @param label the readout label, or null to disable the readout
+     */
+    public void setProfilerReadout(Label label) {
+        this.profilerReadout = label;
     }
 
     /**
      * Called every frame while the game is running.
-     * Handles game state updates, collision detection,
-     * and rendering of the scene and UI.
+     * Advances the simulation (unless it runs on its own thread) and renders
+     * the latest snapshot of the scene and the UI.
      *
      * @param now the timestamp of the current frame given in nanoseconds
      */
     @Override
     public void handle(long now) {
-        if (GameState.getGameOverState()) {
-            renderer.gameOver(gc); // Display "Game Over"
+        if (pacer.skipFrame(now)) {
+            return;
+        }
+        profiler.beginFrame();
+        WorldSnapshot snapshot = simulation.getSnapshot();
+        if (snapshot.gameOver) {
+            renderer.gameOver(); // Display "Game Over"
             this.stop();
             return; 
         }
-        if (GameState.checkIsWin()) {
-            renderer.gameWin(gc); // Display "Win"
+        if (snapshot.gameWin) {
+            renderer.gameWin(); // Display "Win"
             this.stop();
             return; 
         }
-        
-        update();
-        
-        renderer.clear(gc);
+
+        double alpha;
+        if (simulation.isThreaded()) {
+            alpha = simulation.alphaAt(System.nanoTime());
+        } else {
+            if (lastFrameNanos == 0) {
+                lastFrameNanos = now;
+            }
+            alpha = simulation.advance(now - lastFrameNanos);
+            lastFrameNanos = now;
+            profiler.record(Phase.INPUT, simulation.consumeInputNanos());
+        }
+        profiler.mark(Phase.UPDATE);
+        long eventNanos = simulation.claimInputEventNanos();
+        long jumpNanos = simulation.claimJumpEventNanos();
+        snapshot = simulation.getSnapshot();
+
+        double renderX = snapshot.getRenderX(alpha);
+        double renderY = snapshot.getRenderY(alpha);
+        boolean changed = renderX != lastRenderX || renderY != lastRenderY || snapshot.direction != lastDirection;
+        lastRenderX = renderX;
+        lastRenderY = renderY;
+        camera.update(renderX, renderY);
+        renderer.beginFrame();
+        profiler.mark(Phase.CAMERA);
         renderer.renderParallax();
-        camera.update(entitiesPlayer.getX(), entitiesPlayer.getY());
+        profiler.mark(Phase.PARALLAX);
         level.renderGround(); // Отрисовка земли
-        level.renderObject(); // Отрисовка обьектов
-        entitiesPlayer.render(renderer); // Отрисовка героя
-        this.renderUI();
+        profiler.mark(Phase.GROUND);
+        if (level.renderObject(snapshot)) { // Отрисовка обьектов
+            changed = true;
+        }
+        profiler.mark(Phase.OBJECTS);
+        if (snapshot.direction != lastDirection) {
+            lastDirection = snapshot.direction;
+            renderer.markPlayerDirty();
+        }
+        entitiesPlayer.render(renderer, snapshot.direction); // Отрисовка героя
+        profiler.mark(Phase.PLAYER);
+        renderer.flush(); // Отправка всех записанных команд на Canvas
+        profiler.mark(Phase.FLUSH);
+        recordInputLatency(eventNanos, jumpNanos);
+        if (this.renderUI(snapshot)) {
+            changed = true;
+        }
+        pacer.frameRendered(changed);
+        profiler.mark(Phase.UI);
+        if (scheduler.record(profiler.endFrame())) {
+            renderer.setQualityTier(scheduler.getTier());
+        }
+        updateProfilerReadout();
     }
 
     /**
-     * Updates player movement, collision, and game object states.
-     * Reads current key states to determine player actions.
+     * Records the time from the input events reflected in the frame just submitted
+     * to its submission.
+     *
+     * @param eventNanos the oldest input event reflected for the first time, or 0
+     * @param jumpNanos  the oldest jump press reflected for the first time, or 0
      */
-    private void update() {
-        // Горизонтальное движение       
-        if (keys.contains("LEFT")) {
-            //player.moveLeft(collisionHandler);
-            entitiesPlayer.moveLeft(collisionHandler);
-        } else if (keys.contains("RIGHT")) {
-            entitiesPlayer.moveRight(collisionHandler);
-        } else {
-            entitiesPlayer.stopMoving();
+    private void recordInputLatency(long eventNanos, long jumpNanos) {
+        if (eventNanos == 0 && jumpNanos == 0) {
+            return;
+        }
+        long submitted = System.nanoTime();
+        if (eventNanos != 0) {
+            profiler.record(Phase.INPUT_LATENCY, submitted - eventNanos);
         }
+        if (jumpNanos != 0) {
+            profiler.record(Phase.JUMP_LATENCY, submitted - jumpNanos);
+        }
+    }
 
-        // Прыжок
-        if (keys.contains("SPACE")) {
-            entitiesPlayer.jump(); // Прыжок
-        } else {
-            entitiesPlayer.stopJump();
+    /**
+     * Refreshes the profiler readout every {@link Constant#PROFILER_READOUT_FRAMES} frames.
+     */
+    private void updateProfilerReadout() {
+        if (profilerReadout == null || ++framesSinceReadout < Constant.PROFILER_READOUT_FRAMES) {
+            return;
         }
-        entitiesPlayer.applyGravity(); // Гравитация
-        entitiesPlayer.jumpLimit(); // Ограничение по высоте прыжка
-        entitiesPlayer.updatePosition(collisionHandler); // Проверка позиций и коллизий
-        entitiesPlayer.checkObjectCollision(collisionHandler);
-        entitiesPlayer.updateTeilPosition(); // синхронизируем тайловые координаты        
-    }    
-    
+        framesSinceReadout = 0;
+        profilerReadout.setText(profiler.summary() + "\nquality " + scheduler.getTier()
+                + ", tier changes " + scheduler.getTierChanges()
+                + "\ntime scale " + simulation.getTimeScale());
+    }
+
     /**
      * Renders the user interface including player lives and keys.
+     * The HUD lives on its own canvas of the layer stack and is only repainted
+     * when the lives or keys in the snapshot differ from the ones last drawn.
+     *
+     * @param snapshot the snapshot being rendered
+     * @return true if the HUD was repainted
      */
-    private void renderUI(){
-        GameState.renderUILifes(gc, renderer);
-        GameState.renderUIKeys(gc, renderer);
+    private boolean renderUI(WorldSnapshot snapshot){
+        if (snapshot.lives == hudLives && snapshot.keys == hudKeys) {
+            return false;
+        }
+        hudLives = snapshot.lives;
+        hudKeys = snapshot.keys;
+        renderer.clearHud();
+        GameState.renderUILifes(renderer, snapshot.lives);
+        GameState.renderUIKeys(renderer, snapshot.keys);
+        return true;
     }
 }
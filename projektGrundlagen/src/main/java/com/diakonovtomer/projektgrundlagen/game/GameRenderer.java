@@ -5,8 +5,12 @@
 package com.diakonovtomer.projektgrundlagen.game;
 
 import com.diakonovtomer.projektgrundlagen.Constant;
-import java.io.InputStream;
-import java.util.Objects;
+import com.diakonovtomer.projektgrundlagen.level.GroundLayer;
+import java.util.ArrayList;
+import java.util.List;
+import javafx.application.Platform;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 import javafx.scene.image.Image;
@@ -14,56 +18,316 @@ import javafx.scene.text.Font;
 
 
 /**
+ * JavaFX implementation of {@link Renderer}.
+ * <p>
+ * World draws are recorded into a {@link RenderCommandBuffer} and submitted to a
+ * stack of canvases (background, tiles, dynamic objects, HUD) in {@link #flush()}.
+ * </p>
  *
  * @author adiakonov
  */
-public class GameRenderer {         
+public class GameRenderer implements Renderer {         
     private final GameCamera camera;
     private final GraphicsContext gc; 
     
+    private final RenderLayer backgroundLayer;
+    private final RenderLayer tileLayer;
+    private final RenderLayer dynamicLayer;
+    private final RenderLayer hudLayer;
+    private final List<RenderLayer> layers = new ArrayList<>();
     
-    private final Image backgroundFar;
-    private final Image backgroundNear;
-    //private Image backgroundFar = new Image(Objects.requireNonNull(getClass().getResourceAsStream("/img/BACKGROUND_01.png")));
-    //private Image backgroundNear = new Image(Objects.requireNonNull(getClass().getResourceAsStream(Constant.ASSETS_URL + "BACKGROUND_02.png")));;
+    private final List<ParallaxLayer> parallaxLayers = new ArrayList<>();
+    private final TextureAtlas atlas;
+    private final RenderCommandBuffer commands = new RenderCommandBuffer();
+    private int layer = RenderCommandBuffer.LAYER_GROUND;
+    private final DirtyRegionTracker dirty = new DirtyRegionTracker();
+    private double lastCameraX = Double.NaN;
+    private double lastCameraY = Double.NaN;
+    private double lastBackgroundX = Double.NaN;
+    private QualityTier qualityTier = QualityTier.FULL;
+    private TileChunkCache groundChunks;
+    private GroundLayer chunkedLayer;
     
-    public GameRenderer(GraphicsContext gc, GameCamera camera) {
-        this.gc = gc;
+    /**
+     * Creates the renderer and its stack of canvases, from back to front:
+     * parallax background, static tiles, dynamic objects and player, HUD.
+     *
+     * @param camera the camera used to translate world to screen coordinates
+     * @param width  the width of the canvases in pixels
+     * @param height the height of the canvases in pixels
+     */
+    public GameRenderer(GameCamera camera, double width, double height) {
         this.camera = camera;
+        this.backgroundLayer = new RenderLayer(width, height, RenderCommandBuffer.LAYER_PARALLAX, RenderCommandBuffer.LAYER_GROUND - 1);
+        this.tileLayer = new RenderLayer(width, height, RenderCommandBuffer.LAYER_GROUND, RenderCommandBuffer.LAYER_GROUND);
+        this.dynamicLayer = new RenderLayer(width, height, RenderCommandBuffer.LAYER_OBJECTS, RenderCommandBuffer.LAYER_PLAYER);
+        this.hudLayer = new RenderLayer(width, height, -1, -1); // HUD is drawn directly, not through commands
+        this.hudLayer.getCanvas().setMouseTransparent(true);
+        layers.add(backgroundLayer);
+        layers.add(tileLayer);
+        layers.add(dynamicLayer);
+        layers.add(hudLayer);
+        this.gc = dynamicLayer.getGraphicsContext();
         
-        InputStream isFar = getClass().getResourceAsStream(Constant.ASSETS_URL + Constant.BACKGROUND_PNG_01);
-        backgroundFar = new Image(Objects.requireNonNull(isFar));
-        InputStream isNear = getClass().getResourceAsStream(Constant.ASSETS_URL + Constant.BACKGROUND_PNG_02);
-        backgroundNear = new Image(Objects.requireNonNull(isNear));
+        for (int i = 0; i < Constant.PARALLAX_LAYERS.length; i++) {
+            Image image = AssetRegistry.getImage(Constant.PARALLAX_LAYERS[i]);
+            parallaxLayers.add(new ParallaxLayer(image, Constant.PARALLAX_SCROLL_FACTORS[i], width));
+        }
+        atlas = TextureAtlas.shared();
+    }
+
+    /**
+     * Returns the canvases of the layer stack, from back to front.
+     *
+     * @return the canvases to place in a {@code StackPane}
+     */
+    public List<Canvas> getCanvases() {
+        List<Canvas> canvases = new ArrayList<>();
+        for (RenderLayer l : layers) {
+            canvases.add(l.getCanvas());
+        }
+        return canvases;
+    }
+
+    /**
+     * Returns the graphics context of the dynamic layer (objects and player).
+     *
+     * @return the graphics context of the main world canvas
+     */
+    public GraphicsContext getGraphicsContext() {
+        return gc;
+    }
+
+    /**
+     * Returns the graphics context of the HUD overlay.
+     *
+     * @return the HUD graphics context
+     */
+    public GraphicsContext getHudContext() {
+        return hudLayer.getGraphicsContext();
+    }
+
+    /**
+     * Clears every canvas of the stack.
+     */
+    public void clearAll() {
+        for (RenderLayer l : layers) {
+            clear(l.getGraphicsContext());
+            l.invalidate();
+        }
+    }
+
+    /**
+     * Starts a frame: decides which layers have to be repainted.
+     * Must be called after the camera has been updated and before recording.
+     * <p>
+     * The background only depends on the horizontal camera offset, the tiles and
+     * the dynamic layer on both offsets. Tile mutations invalidate the tile layer,
+     * other changes mark dirty regions of the dynamic layer.
+     * </p>
+     */
+    @Override
+    public void beginFrame() {
+        double cameraX = camera.getOffsetX();
+        double cameraY = camera.getOffsetY();
+        double backgroundX = backgroundOffsetX(cameraX);
+        if (backgroundX != lastBackgroundX) {
+            backgroundLayer.invalidate();
+            lastBackgroundX = backgroundX;
+        }
+        if (cameraX != lastCameraX || cameraY != lastCameraY) {
+            tileLayer.invalidate();
+            dirty.markAll();
+            lastCameraX = cameraX;
+            lastCameraY = cameraY;
+        }
+    }
+
+    /**
+     * Checks whether draws on the given command layer are needed this frame.
+     * Callers can skip recording layers whose canvas keeps its content.
+     *
+     * @param commandLayer one of the {@code RenderCommandBuffer.LAYER_*} constants
+     * @return true if the layer's canvas will be repainted
+     */
+    @Override
+    public boolean needsRedraw(int commandLayer) {
+        for (RenderLayer l : layers) {
+            if (l.contains(commandLayer)) {
+                return l == dynamicLayer ? !dirty.isEmpty() : l.needsRedraw();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reacts to a tile mutation of the level.
+     *
+     * @param type the layer type of the change ({@code "ground"} or {@code "object"})
+     * @param x    the X coordinate in tile units
+     * @param y    the Y coordinate in tile units
+     */
+    @Override
+    public void onTileChanged(String type, int x, int y) {
+        if (!Platform.isFxApplicationThread()) {
+            // Changes made by the simulation thread are applied before the next pulse
+            Platform.runLater(() -> onTileChanged(type, x, y));
+            return;
+        }
+        if (Constant.MAP_LAYER_NAME_GROUND.equals(type)) {
+            if (groundChunks != null) {
+                groundChunks.onTileChanged(type, x, y);
+            }
+            tileLayer.invalidate();
+        } else {
+            markDirty(x * Constant.TILE_SIZE, y * Constant.TILE_SIZE, Constant.TILE_SIZE, Constant.TILE_SIZE);
+        }
+    }
+
+    @Override
+    public GameCamera getCamera() {
+        return camera;
+    }
+
+    /**
+     * Selects the layer that following world draws are recorded on.
+     *
+     * @param layer one of the {@code RenderCommandBuffer.LAYER_*} constants
+     */
+    @Override
+    public void setLayer(int layer) {
+        this.layer = layer;
+    }
+
+    /**
+     * Returns the command buffer that world draws are recorded into.
+     *
+     * @return the command buffer
+     */
+    public RenderCommandBuffer getCommands() {
+        return commands;
+    }
+
+    /**
+     * Returns the tracker of screen areas that changed this frame.
+     *
+     * @return the dirty region tracker
+     */
+    public DirtyRegionTracker getDirtyRegions() {
+        return dirty;
+    }
+
+    /**
+     * Marks an area of the world as changed so it is repainted even if the camera did not move.
+     *
+     * @param posPixX X in world pixels
+     * @param posPixY Y in world pixels
+     * @param width   width in pixels
+     * @param height  height in pixels
+     */
+    @Override
+    public void markDirty(double posPixX, double posPixY, double width, double height) {
+        dirty.mark(posPixX - camera.getOffsetX(), posPixY - camera.getOffsetY(), width, height);
+    }
+
+    /**
+     * Marks the player's screen area as changed (e.g. when the sprite direction flips).
+     */
+    @Override
+    public void markPlayerDirty() {
+        dirty.mark(camera.getPlayerCameraX(), camera.getPlayerCameraY(), Constant.TILE_SIZE, Constant.TILE_SIZE);
     }
 
+    /**
+     * Sorts the draws recorded this frame and submits them to the canvases that need it.
+     * <p>
+     * The background and tile canvases are repainted completely when invalidated
+     * and left untouched otherwise. The dynamic canvas is repainted completely when
+     * the camera moved; otherwise only the areas marked in the
+     * {@link DirtyRegionTracker} are cleared and redrawn, and a frame without changes
+     * does not touch it at all.
+     * </p>
+     */
+    @Override
+    public void flush() {
+        for (RenderLayer l : layers) {
+            if (l == hudLayer || l == dynamicLayer || !l.needsRedraw()) {
+                continue;
+            }
+            GraphicsContext layerGc = l.getGraphicsContext();
+            clear(layerGc);
+            commands.submit(layerGc, null, l.getMinLayer(), l.getMaxLayer());
+            l.markRedrawn();
+        }
+
+        int min = dynamicLayer.getMinLayer();
+        int max = dynamicLayer.getMaxLayer();
+        if (dirty.isFull()) {
+            clear(gc);
+            commands.submit(gc, null, min, max);
+        } else if (!dirty.isEmpty()) {
+            gc.save();
+            gc.beginPath();
+            for (int i = 0; i < dirty.size(); i++) {
+                gc.rect(dirty.getX(i), dirty.getY(i), dirty.getWidth(i), dirty.getHeight(i));
+            }
+            gc.clip();
+            for (int i = 0; i < dirty.size(); i++) {
+                gc.clearRect(dirty.getX(i), dirty.getY(i), dirty.getWidth(i), dirty.getHeight(i));
+            }
+            commands.submit(gc, dirty, min, max);
+            gc.restore();
+        }
+        dynamicLayer.markRedrawn();
+        dirty.reset();
+        commands.clear();
+    }
+
+    @Override
     public void renderCell(Color color, double posPixX, double posPixY, int width, int height) {
         renderRect(gc, color, posPixX, posPixY, width, height);
     }
 
     private void renderRect(GraphicsContext gc, Color color, double posPixX, double posPixY, int width, int height) {
-        gc.setFill(color);
         double offsetX = camera.getOffsetX();
         double offsetY = camera.getOffsetY();       
         posPixX = posPixX - offsetX;
         posPixY = posPixY - offsetY;
-        gc.fillRect(posPixX, posPixY, width, height); 
+        commands.addFill(layer, color, posPixX, posPixY, width, height);
     }
     
+    @Override
     public void renderPlayer() {
-        gc.setFill(Color.BLUE);
-        gc.fillRect(camera.getPlayerCameraX(), camera.getPlayerCameraY(), Constant.TILE_SIZE, Constant.TILE_SIZE);
+        commands.addFill(RenderCommandBuffer.LAYER_PLAYER, Color.BLUE, camera.getPlayerCameraX(), camera.getPlayerCameraY(), Constant.TILE_SIZE, Constant.TILE_SIZE);
     }
     
+    @Override
     public void renderPlayerImg(Image image) {
         //Image image = new Image(getClass().getResourceAsStream(Constant.ASSETS_URL + imageName));
-        gc.drawImage(image, camera.getPlayerCameraX(), camera.getPlayerCameraY(), Constant.TILE_SIZE, Constant.TILE_SIZE);
+        commands.addImage(RenderCommandBuffer.LAYER_PLAYER, image, camera.getPlayerCameraX(), camera.getPlayerCameraY(), Constant.TILE_SIZE, Constant.TILE_SIZE);
+    }
+    
+    @Override
+    public void renderPlayerSprite(String sprite) {
+        addSprite(RenderCommandBuffer.LAYER_PLAYER, sprite, camera.getPlayerCameraX(), camera.getPlayerCameraY(), Constant.TILE_SIZE, Constant.TILE_SIZE);
     }
     
     public void clear (GraphicsContext gc) {
         gc.clearRect(0, 0, gc.getCanvas().getWidth(), gc.getCanvas().getHeight());
     }
     
+    @Override
+    public void gameOver() {
+        clearAll();
+        gameOver(getHudContext());
+    }
+    
+    @Override
+    public void gameWin() {
+        clearAll();
+        gameWin(getHudContext());
+    }
+    
     public void gameOver(GraphicsContext gc) {
         this.clear(gc);
         gc.setFill(Color.CRIMSON); // Цвет текста
@@ -78,21 +342,35 @@ public class GameRenderer {
         gc.fillText("YOU WIN", 200, 180); // Текст, координаты X/Y
     }
     
+    @Override
+    public void clearHud() {
+        clear(getHudContext());
+    }
+    
+    @Override
+    public void renderUILifes(boolean type, int position) {
+        renderUILifes(getHudContext(), type, position);
+    }
+    
+    @Override
+    public void renderUIKeys(boolean type, int position) {
+        renderUIKeys(getHudContext(), type, position);
+    }
+    
     public void renderUILifes(GraphicsContext gc , boolean type,  int position){
         if (gc == null) return; // защита от NPE
         String name = (type) ? Constant.UI_LIFE_FULL : Constant.UI_LIFE_EMPTY;
-        Image myImage  = new Image(getClass().getResourceAsStream(Constant.ASSETS_URL + name));
-        gc.drawImage(myImage , 25 * position, 10, 20, 20);  // x и y — координаты в пикселях
+        atlas.draw(gc, name, 25 * position, 10, 20, 20);  // x и y — координаты в пикселях
     }
     
      public void renderUIKeys(GraphicsContext gc , boolean type,  int position){
         if (gc == null) return; // защита от NPE
         String name = (type) ? Constant.UI_KEY_FULL : Constant.UI_KEY_EMPTY;
-        Image myImage  = new Image(getClass().getResourceAsStream(Constant.ASSETS_URL + name));
-        gc.drawImage(myImage , Constant.GAMEWIDTH - (25 * position), 10, 25, 20);  // x и y — координаты в пикселях
+        atlas.draw(gc, name, Constant.GAMEWIDTH - (25 * position), 10, 25, 20);  // x и y — координаты в пикселях
     }
      
      
+    @Override
     public void renderTileImage( Image image, double posPixX, double posPixY, int width, int height) {
         double offsetX = camera.getOffsetX();
         double offsetY = camera.getOffsetY();       
@@ -100,31 +378,79 @@ public class GameRenderer {
         posPixY = posPixY - offsetY;
 
         //Image image = new Image(getClass().getResourceAsStream(Constant.ASSETS_URL + imageName));
-        gc.drawImage(image, posPixX, posPixY, width, height);
+        commands.addImage(layer, image, posPixX, posPixY, width, height);
     }
     
-   public void renderParallax() {
-        double cameraX = camera.getOffsetX();
-
-        renderParallaxLayer(backgroundFar, 0.3, cameraX);
-        renderParallaxLayer(backgroundNear, 0.6, cameraX);
+    /**
+     * Draws the visible part of the ground layer from pre-rendered chunks.
+     *
+     * @param groundLayer the ground layer of the level
+     */
+    @Override
+    public void renderGroundLayer(GroundLayer groundLayer) {
+        if (groundChunks == null || chunkedLayer != groundLayer) {
+            groundChunks = new TileChunkCache(groundLayer);
+            chunkedLayer = groundLayer;
+        }
+        groundChunks.render(this);
+    }
+    
+    @Override
+    public void renderSprite(String sprite, double posPixX, double posPixY, int width, int height) {
+        addSprite(layer, sprite, posPixX - camera.getOffsetX(), posPixY - camera.getOffsetY(), width, height);
+    }
+    
+    private void addSprite(int layer, String sprite, double x, double y, double width, double height) {
+        Rectangle2D region = atlas.getRegion(sprite);
+        if (region == null) {
+            commands.addImage(layer, AssetRegistry.getImage(sprite), x, y, width, height); // not packed
+            return;
+        }
+        commands.addImage(layer, atlas.getImage(), region.getMinX(), region.getMinY(), region.getWidth(), region.getHeight(),
+                x, y, width, height);
+    }
+    
+    @Override
+    public void setQualityTier(QualityTier tier) {
+        if (tier != qualityTier) {
+            qualityTier = tier;
+            backgroundLayer.invalidate();
+        }
     }
 
-    private void renderParallaxLayer(Image image, double scrollFactor, double cameraX) {
-        if (image == null) return;
+    /**
+     * Returns the camera offset the background is drawn for: the camera offset
+     * itself, or snapped to {@link Constant#PARALLAX_COARSE_STEP} at reduced quality.
+     *
+     * @param cameraX the horizontal camera offset
+     * @return the background offset
+     */
+    private double backgroundOffsetX(double cameraX) {
+        if (qualityTier.compareTo(QualityTier.COARSE_PARALLAX) >= 0) {
+            return Math.floor(cameraX / Constant.PARALLAX_COARSE_STEP) * Constant.PARALLAX_COARSE_STEP;
+        }
+        return cameraX;
+    }
 
-        double bgWidth = image.getWidth();
-        double bgHeight = image.getHeight();
+    @Override
+    public void renderParallax() {
+        if (!backgroundLayer.needsRedraw()) {
+            return;
+        }
+        double cameraX = backgroundOffsetX(camera.getOffsetX());
         double canvasWidth = gc.getCanvas().getWidth();
         double canvasHeight = gc.getCanvas().getHeight();
 
-        // Смещение по X с учётом коэффициента параллакса
-        double offsetX = -(cameraX * scrollFactor) % bgWidth;
-        if (offsetX > 0) offsetX -= bgWidth;
-
-        // Заполняем по горизонтали фоном
-        for (double x = offsetX; x < canvasWidth; x += bgWidth) {
-            gc.drawImage(image, x, canvasHeight - bgHeight);
+        if (qualityTier == QualityTier.NO_PARALLAX) {
+            commands.addFill(RenderCommandBuffer.LAYER_PARALLAX, Color.LIGHTSKYBLUE, 0, 0, canvasWidth, canvasHeight);
+            return;
+        }
+        int count = parallaxLayers.size();
+        if (qualityTier != QualityTier.FULL && count > 1) {
+            count--; // the last layer scrolls fastest, it is the nearest one
+        }
+        for (int i = 0; i < count; i++) {
+            parallaxLayers.get(i).render(commands, RenderCommandBuffer.LAYER_PARALLAX + i, cameraX, canvasWidth, canvasHeight);
         }
     }
      
@@ -0,0 +1,463 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.game;
+
+import com.diakonovtomer.projektgrundlagen.Constant;
+import com.diakonovtomer.projektgrundlagen.collision.CollisionHandler;
+import com.diakonovtomer.projektgrundlagen.collision.TriggerTracker;
+import com.diakonovtomer.projektgrundlagen.entities.EntitiesObjects;
+import com.diakonovtomer.projektgrundlagen.entities.EntitiesPlayer;
+import com.diakonovtomer.projektgrundlagen.input.InputAction;
+import com.diakonovtomer.projektgrundlagen.input.InputScript;
+import com.diakonovtomer.projektgrundlagen.input.InputState;
+import com.diakonovtomer.projektgrundlagen.level.Level;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fixed-timestep game simulation: player physics, collisions and game state.
+ * <p>
+ * The simulation can be driven in two ways:
+ * </p>
+ * <ul>
+ *   <li>from the render loop, by calling {@link #advance(long)} with the elapsed
+ *       frame time (single-threaded mode);</li>
+ *   <li>from its own thread, started with {@link #start()}, which ticks at
+ *       {@link Constant#SIMULATION_TICK_RATE} while the JavaFX thread renders
+ *       (threaded mode, see {@link Constant#SIMULATION_THREADED}).</li>
+ * </ul>
+ * <p>
+ * In both modes every tick publishes an immutable {@link WorldSnapshot}; the
+ * render loop only reads the latest snapshot through {@link #getSnapshot()}.
+ * </p>
+ * <p>
+ * The action mask of every tick can be recorded into an {@link InputScript}, and a
+ * recorded script can be replayed instead of the live input; since the simulation
+ * only depends on the level and the per-tick masks, a replay is bit-exact.
+ * </p>
+ *
+ * @author adiakonov
+ */
+public class GameSimulation {
+    private final EntitiesPlayer entitiesPlayer;
+    private final CollisionHandler collisionHandler;
+    private final InputState input;
+
+    /** Duration of one simulation tick in nanoseconds. */
+    private final long tickNanos = 1_000_000_000L / Constant.SIMULATION_TICK_RATE;
+
+    /** Simulated time per real time; {@link Double#POSITIVE_INFINITY} runs as fast as possible. */
+    private volatile double timeScale = Constant.TIME_SCALE;
+
+    /** Frame time not yet consumed by ticks (single-threaded mode only). */
+    private long accumulatorNanos = 0;
+
+    /** Number of ticks simulated so far. */
+    private long tick = 0;
+
+    /** Script every tick's action mask is appended to, or null. */
+    private InputScript recording;
+
+    /** Script replayed instead of the live input, or null. */
+    private InputScript replay;
+    private int replayRun = 0;
+    private int replayLeft = 0;
+
+    /** Oldest input event consumed by a published tick and not yet claimed by the renderer, or 0. */
+    private final AtomicLong pendingEventNanos = new AtomicLong();
+
+    /** Oldest jump press consumed by a published tick and not yet claimed by the renderer, or 0. */
+    private final AtomicLong pendingJumpNanos = new AtomicLong();
+
+    /** Time spent draining input since the last {@link #consumeInputNanos()}. */
+    private long inputNanos = 0;
+
+    /** Used-up object tiles, copied on write so published snapshots never change. */
+    private long[] usedObjects;
+    private final int objectLayerWidth;
+
+    /** Latest published snapshot. */
+    private final AtomicReference<WorldSnapshot> snapshot = new AtomicReference<>();
+
+    /** Simulation thread, or null in single-threaded mode. */
+    private Thread thread;
+    private volatile boolean running = false;
+
+    /**
+     * Creates the simulation for a level and its player.
+     *
+     * @param level          the level to simulate
+     * @param entitiesPlayer the player entity
+     * @param input          the input state, drained at every tick boundary
+     */
+    public GameSimulation(Level level, EntitiesPlayer entitiesPlayer, InputState input) {
+        this.entitiesPlayer = entitiesPlayer;
+        this.collisionHandler = new CollisionHandler(level);
+        this.input = input;
+        this.objectLayerWidth = level.getObjectLayer().lengthX;
+        this.usedObjects = new long[(objectLayerWidth * level.getObjectLayer().lengthY + 63) >>> 6];
+        publish();
+    }
+
+    /**
+     * Returns the duration of one tick in nanoseconds.
+     *
+     * @return the tick duration
+     */
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    /**
+     * Returns the latest published snapshot.
+     *
+     * @return the snapshot of the last completed tick
+     */
+    public WorldSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Returns the time spent draining input events since the last call and resets it.
+     * Only meaningful in single-threaded mode.
+     *
+     * @return the time in nanoseconds
+     */
+    public long consumeInputNanos() {
+        long nanos = inputNanos;
+        inputNanos = 0;
+        return nanos;
+    }
+
+    /**
+     * Records the action mask of every following tick into a script.
+     *
+     * @param recording the script to append to, or null to stop recording
+     */
+    public void setRecording(InputScript recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * Replays a recorded script instead of the live input, starting with the next tick.
+     * Once the script is exhausted no action is pressed.
+     *
+     * @param replay the script to replay, or null to use the live input again
+     */
+    public void setReplay(InputScript replay) {
+        this.replay = replay;
+        this.replayRun = 0;
+        this.replayLeft = replay != null && replay.getRunCount() > 0 ? replay.getLength(0) : 0;
+    }
+
+    /**
+     * Returns whether a replay was set and all its ticks have been played.
+     *
+     * @return true if the replay is finished
+     */
+    public boolean isReplayFinished() {
+        return replay != null && replayLeft == 0;
+    }
+
+    /**
+     * Returns the mask of the next replayed tick and advances the replay.
+     */
+    private int nextReplayMask() {
+        if (replayLeft == 0) {
+            return 0;
+        }
+        int mask = replay.getMask(replayRun);
+        if (--replayLeft == 0 && ++replayRun < replay.getRunCount()) {
+            replayLeft = replay.getLength(replayRun);
+        }
+        return mask;
+    }
+
+    /**
+     * Returns whether the simulation runs on its own thread.
+     *
+     * @return true while the simulation thread is running
+     */
+    public boolean isThreaded() {
+        return thread != null;
+    }
+
+    /**
+     * Sets how fast simulated time passes compared to real time, e.g. 0.25, 1 or 4.
+     * {@link Double#POSITIVE_INFINITY} ticks as fast as possible and leaves the
+     * render loop only {@link Constant#FAST_FORWARD_FRAME_NANOS} per frame, so only
+     * every Nth tick is rendered. The tick length itself never changes, so the
+     * physics behave the same at every scale.
+     *
+     * @param timeScale the time scale, greater than zero
+     */
+    public void setTimeScale(double timeScale) {
+        if (!(timeScale > 0)) {
+            throw new IllegalArgumentException("Time scale must be positive: " + timeScale);
+        }
+        this.timeScale = timeScale;
+    }
+
+    /**
+     * Returns the time scale.
+     *
+     * @return simulated time per real time
+     */
+    public double getTimeScale() {
+        return timeScale;
+    }
+
+    /**
+     * Feeds elapsed frame time, multiplied by the time scale, into the accumulator
+     * and runs as many whole ticks as it covers, at most
+     * {@link Constant#SIMULATION_MAX_TICKS_PER_FRAME} times the time scale.
+     * Used in single-threaded mode.
+     *
+     * @param frameNanos the time elapsed since the previous frame
+     * @return progress into the next tick, in {@code [0, 1]}, for interpolation
+     */
+    public double advance(long frameNanos) {
+        double scale = timeScale;
+        if (Double.isInfinite(scale)) {
+            fastForward(System.nanoTime() + Constant.FAST_FORWARD_FRAME_NANOS);
+            accumulatorNanos = 0;
+            return 1;
+        }
+        accumulatorNanos += (long) (Math.min(frameNanos, Constant.SIMULATION_MAX_FRAME_NANOS) * scale);
+        int maxTicks = Math.max(1, (int) Math.ceil(Constant.SIMULATION_MAX_TICKS_PER_FRAME * scale));
+        int ticks = 0;
+        while (accumulatorNanos >= tickNanos) {
+            if (ticks == maxTicks) {
+                accumulatorNanos %= tickNanos; // Drop the backlog instead of spiralling
+                break;
+            }
+            tick();
+            accumulatorNanos -= tickNanos;
+            ticks++;
+        }
+        return (double) accumulatorNanos / tickNanos;
+    }
+
+    /**
+     * Returns the interpolation factor for rendering at the given time in
+     * threaded mode: how far the simulation thread presumably is into the tick
+     * after the latest snapshot.
+     *
+     * @param nowNanos the current {@link System#nanoTime()}
+     * @return progress into the next tick, clamped to {@code [0, 1]}
+     */
+    public double alphaAt(long nowNanos) {
+        double alpha = (nowNanos - snapshot.get().publishedNanos) * timeScale / tickNanos;
+        return Math.max(0, Math.min(1, alpha));
+    }
+
+    /**
+     * Ticks without pause until the deadline or the end of the game.
+     *
+     * @param deadlineNanos the {@link System#nanoTime()} to stop at
+     */
+    private void fastForward(long deadlineNanos) {
+        do {
+            tick();
+        } while (System.nanoTime() - deadlineNanos < 0 && !isGameEnded());
+    }
+
+    /**
+     * Returns whether the latest snapshot reports game over or a win.
+     */
+    private boolean isGameEnded() {
+        WorldSnapshot last = snapshot.get();
+        return last.gameOver || last.gameWin;
+    }
+
+    /**
+     * Starts the simulation thread. From now on the simulation must not be
+     * advanced from the render loop.
+     */
+    public void start() {
+        if (thread != null) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "game-simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the simulation thread and waits for it to finish its current tick.
+     * The thread can be started again with {@link #start()}.
+     */
+    public void stop() {
+        running = false;
+        if (thread != null && thread != Thread.currentThread()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        thread = null;
+    }
+
+    /**
+     * Body of the simulation thread: ticks at a fixed rate until stopped or the
+     * game ends, parking between ticks.
+     */
+    private void run() {
+        long nextTick = System.nanoTime();
+        while (running) {
+            double scale = timeScale;
+            if (Double.isInfinite(scale)) {
+                fastForward(System.nanoTime() + Constant.FAST_FORWARD_FRAME_NANOS);
+                nextTick = System.nanoTime();
+            } else {
+                long interval = Math.max(1, (long) (tickNanos / scale));
+                long now = System.nanoTime();
+                int ticks = 0;
+                while (now - nextTick >= 0 && ticks < Constant.SIMULATION_MAX_TICKS_PER_FRAME) {
+                    // Late sampling also takes events that arrived after the scheduled boundary
+                    tick(Constant.INPUT_LATE_SAMPLING ? System.nanoTime() : nextTick);
+                    nextTick += interval;
+                    ticks++;
+                }
+                if (now - nextTick >= 0) {
+                    nextTick = now + interval; // Drop the backlog instead of spiralling
+                }
+            }
+            if (isGameEnded()) {
+                running = false;
+                break;
+            }
+            LockSupport.parkNanos(nextTick - System.nanoTime());
+        }
+    }
+
+    /**
+     * Advances the simulation by one fixed tick, consuming all input events up to now.
+     */
+    public void tick() {
+        tick(System.nanoTime());
+    }
+
+    /**
+     * Advances the simulation by one fixed tick: player movement, collision
+     * and game object states. Input events stamped up to the tick boundary are
+     * consumed first and determine the player actions.
+     *
+     * @param boundaryNanos the time of the tick boundary
+     */
+    public void tick(long boundaryNanos) {
+        long inputStart = System.nanoTime();
+        input.beginTick(boundaryNanos);
+        if (replay != null) {
+            input.applyMask(nextReplayMask());
+        }
+        if (recording != null) {
+            recording.append(input.getTickMask());
+        }
+        inputNanos += System.nanoTime() - inputStart;
+        entitiesPlayer.beginTick();
+        // Горизонтальное движение       
+        if (input.isDown(InputAction.LEFT)) {
+            entitiesPlayer.moveLeft();
+        } else if (input.isDown(InputAction.RIGHT)) {
+            entitiesPlayer.moveRight();
+        } else {
+            entitiesPlayer.stopMoving();
+        }
+
+        // Прыжок
+        if (input.isDown(InputAction.JUMP)) {
+            entitiesPlayer.jump(); // Прыжок
+        } else {
+            entitiesPlayer.stopJump();
+        }
+        entitiesPlayer.applyGravity(); // Гравитация
+        entitiesPlayer.jumpLimit(); // Ограничение по высоте прыжка
+        entitiesPlayer.updatePosition(collisionHandler); // Проверка позиций и коллизий
+        entitiesPlayer.checkObjectCollision(collisionHandler, tick);
+        entitiesPlayer.updateTeilPosition(); // синхронизируем тайловые координаты
+        collectUsedObjects();
+        tick++;
+        publish();
+        // After publishing: a claimed event is always reflected in the latest snapshot
+        if (input.getTickFirstEventNanos() != 0) {
+            pendingEventNanos.accumulateAndGet(input.getTickFirstEventNanos(), GameSimulation::oldest);
+        }
+        if (input.getTickFirstJumpNanos() != 0) {
+            pendingJumpNanos.accumulateAndGet(input.getTickFirstJumpNanos(), GameSimulation::oldest);
+        }
+    }
+
+    /**
+     * Returns the older of two timestamps, where 0 means none.
+     */
+    private static long oldest(long a, long b) {
+        return a == 0 ? b : Math.min(a, b);
+    }
+
+    /**
+     * Returns the time of the oldest input event consumed since the last call and
+     * clears it. Must be called before {@link #getSnapshot()} so the snapshot read
+     * afterwards reflects the event.
+     *
+     * @return the event time in nanoseconds, or 0 if no event was consumed
+     */
+    public long claimInputEventNanos() {
+        return pendingEventNanos.getAndSet(0);
+    }
+
+    /**
+     * Returns the time of the oldest jump press consumed since the last call and
+     * clears it, see {@link #claimInputEventNanos()}.
+     *
+     * @return the event time in nanoseconds, or 0 if no jump press was consumed
+     */
+    public long claimJumpEventNanos() {
+        return pendingJumpNanos.getAndSet(0);
+    }
+
+    /**
+     * Adds the interactive objects used up during this tick to the used-object set.
+     * Objects only change while handling a trigger event, so just the objects the
+     * {@link TriggerTracker} collected are looked at, and the set is only copied
+     * when there is one.
+     */
+    private void collectUsedObjects() {
+        TriggerTracker triggers = entitiesPlayer.getTriggerTracker();
+        int count = triggers.getChangedCount();
+        if (count == 0) {
+            return;
+        }
+        usedObjects = usedObjects.clone();
+        for (int i = 0; i < count; i++) {
+            EntitiesObjects object = triggers.getChanged(i);
+            int tile = object.getY() * objectLayerWidth + object.getX();
+            usedObjects[tile >>> 6] |= 1L << tile;
+        }
+    }
+
+    /**
+     * Publishes a snapshot of the current state.
+     */
+    private void publish() {
+        snapshot.set(new WorldSnapshot(
+            tick,
+            System.nanoTime(),
+            entitiesPlayer.getPrevPosX(),
+            entitiesPlayer.getPrevPosY(),
+            entitiesPlayer.getPosX(),
+            entitiesPlayer.getPosY(),
+            entitiesPlayer.getDirection(),
+            GameState.getGameOverState(),
+            GameState.checkIsWin(),
+            GameState.getLives(),
+            GameState.getKeys(),
+            usedObjects
+        ));
+    }
+}
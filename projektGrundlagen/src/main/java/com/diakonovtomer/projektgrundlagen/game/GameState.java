@@ -5,33 +5,34 @@
 package com.diakonovtomer.projektgrundlagen.game;
 
 import com.diakonovtomer.projektgrundlagen.Constant;
-import javafx.scene.canvas.GraphicsContext;
 
 /**
  * Represents the global state of the game, including player lives, keys, win/lose status,
  * and UI rendering for lives and keys.
  * <p>
  * This class uses static methods and fields to maintain a singleton-like behavior,
- * accessible globally within the game.
+ * accessible globally within the game. The fields are volatile because the state is
+ * written by {@link GameSimulation} and read by the render loop, which may run on
+ * different threads.
  * </p>
  * 
  * @author adiakonov
  */
 public class GameState {
     /** Current number of player lives. */
-    private static int lives = Constant.START_LIVES;
+    private static volatile int lives = Constant.START_LIVES;
     
     /** Current number of collected keys. */
-    private static int keys = Constant.START_KEYS;
+    private static volatile int keys = Constant.START_KEYS;
     
     /** Whether the player has reached the door (used for win condition). */
-    private static boolean door = false;
+    private static volatile boolean door = false;
     
     /** True if the player has won the game. */
-    private static boolean isWin = false;
+    private static volatile boolean isWin = false;
     
     /** True if the player has lost the game. */
-    private static boolean isGameOver = false;
+    private static volatile boolean isGameOver = false;
 
     /**
      * Sets the state of the door (true if the door has been reached).
@@ -67,6 +68,7 @@ public class GameState {
      * @param delta the number of lives to add (can be negative)
      */
     public static void changeLives(int delta) {
+        if (delta == 0) return;
         lives += delta;
         isGameOver = checkIsGameOver();
     }  
@@ -96,16 +98,20 @@ public class GameState {
      * @param delta the number of keys to add (can be negative)
      */
     public static void changeKeys(int delta) {
+        if (delta == 0) return;
         keys += delta;
         isWin = checkIsWin();
     }
 
     /**
-     * Resets the game state to initial values (lives and keys).
+     * Resets the game state to initial values (lives, keys, door, win and game over).
      */
     public static void reset() {
         lives = Constant.START_LIVES;
         keys = Constant.START_KEYS;
+        door = false;
+        isWin = false;
+        isGameOver = false;
     }
     
     /**
@@ -154,32 +160,30 @@ public class GameState {
     }
     
     /**
-     * Renders the life UI (hearts) using the provided graphics context and renderer.
+     * Renders the life UI (hearts) using the provided renderer.
      *
-     * @param gc        the graphics context to draw on
-     * @param renderer  the game renderer used to draw UI elements
+     * @param renderer  the renderer used to draw UI elements
+     * @param life      the number of lives to show
      */
-    public static void renderUILifes(GraphicsContext gc, GameRenderer renderer) {
-        int life = getLives();
+    public static void renderUILifes(Renderer renderer, int life) {
         int maxLife = getMaxLives();
         for (int i = 1; i <= maxLife; i++) {
             boolean type = life >= i;
-            renderer.renderUILifes(gc, type, i);
+            renderer.renderUILifes(type, i);
         }
     }
     
     /**
-     * Renders the key UI using the provided graphics context and renderer.
+     * Renders the key UI using the provided renderer.
      *
-     * @param gc        the graphics context to draw on
-     * @param renderer  the game renderer used to draw UI elements
+     * @param renderer  the renderer used to draw UI elements
+     * @param keys      the number of keys to show
      */
-    public static void renderUIKeys(GraphicsContext gc, GameRenderer renderer) {
-        int keys = getKeys();
+    public static void renderUIKeys(Renderer renderer, int keys) {
         int maxKeys = getMaxKeys();
         for (int i = 1; i <= maxKeys; i++) {
             boolean type = keys >= i;
-            renderer.renderUIKeys(gc, type, i);
+            renderer.renderUIKeys(type, i);
         }
     }
 }
@@ -0,0 +1,292 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.game;
+
+import com.diakonovtomer.projektgrundlagen.Constant;
+import com.diakonovtomer.projektgrundlagen.level.GroundLayer;
+import java.util.Arrays;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+
+/**
+ * {@link Renderer} that rasterizes into an {@code int[]} ARGB framebuffer.
+ * <p>
+ * It does not need the JavaFX toolkit and never decodes images: sprites are drawn
+ * as flat rectangles in a color derived from the sprite name, images as grey
+ * rectangles. Every call is counted and validated (finite coordinates, positive
+ * size, non-null sprite or image), so the render path can be benchmarked and compared against
+ * golden checksums on machines without a display.
+ * </p>
+ *
+ * @author adiakonov
+ */
+public class HeadlessRenderer implements Renderer {
+
+    /** Color used for the parallax backgrounds. */
+    private static final int BACKGROUND_COLOR = 0xFF87CEEB;
+
+    /** Color used for images that are not sprites (e.g. baked chunks). */
+    private static final int IMAGE_COLOR = 0xFF808080;
+
+    private final GameCamera camera;
+    private final int width;
+    private final int height;
+    private final int[] framebuffer;
+
+    private int drawCalls = 0;
+    private int invalidDrawCalls = 0;
+    private int hudDrawCalls = 0;
+    private int frames = 0;
+    private boolean gameOver = false;
+    private boolean gameWin = false;
+    private QualityTier qualityTier = QualityTier.FULL;
+
+    /**
+     * Creates a headless renderer with its own framebuffer.
+     *
+     * @param camera the camera used to translate world to screen coordinates
+     * @param width  the framebuffer width in pixels
+     * @param height the framebuffer height in pixels
+     */
+    public HeadlessRenderer(GameCamera camera, int width, int height) {
+        this.camera = camera;
+        this.width = width;
+        this.height = height;
+        this.framebuffer = new int[width * height];
+    }
+
+    @Override
+    public GameCamera getCamera() {
+        return camera;
+    }
+
+    @Override
+    public void beginFrame() {
+        Arrays.fill(framebuffer, 0);
+    }
+
+    @Override
+    public void setLayer(int layer) {
+        // Layers are drawn in call order
+    }
+
+    @Override
+    public boolean needsRedraw(int layer) {
+        return true; // the framebuffer is repainted completely every frame
+    }
+
+    @Override
+    public void markDirty(double posPixX, double posPixY, double width, double height) {
+    }
+
+    @Override
+    public void markPlayerDirty() {
+    }
+
+    @Override
+    public void onTileChanged(String type, int x, int y) {
+    }
+
+    @Override
+    public void renderGroundLayer(GroundLayer groundLayer) {
+        int startX = camera.getFirstVisibleTileX(groundLayer.lengthX);
+        int endX = camera.getLastVisibleTileX(groundLayer.lengthX);
+        int startY = camera.getFirstVisibleTileY(groundLayer.lengthY);
+        int endY = camera.getLastVisibleTileY(groundLayer.lengthY);
+        for (int y = startY; y < endY; y++) {
+            for (int x = startX; x < endX; x++) {
+                groundLayer.layer[y][x].render(this);
+            }
+        }
+    }
+
+    @Override
+    public void renderCell(Color color, double posPixX, double posPixY, int width, int height) {
+        if (color == null) {
+            invalidDrawCalls++;
+            return;
+        }
+        if (color.getOpacity() == 0) {
+            return;
+        }
+        fill(toArgb(color), posPixX - camera.getOffsetX(), posPixY - camera.getOffsetY(), width, height);
+    }
+
+    @Override
+    public void renderTileImage(Image image, double posPixX, double posPixY, int width, int height) {
+        if (image == null) {
+            invalidDrawCalls++;
+            return;
+        }
+        fill(IMAGE_COLOR, posPixX - camera.getOffsetX(), posPixY - camera.getOffsetY(), width, height);
+    }
+
+    @Override
+    public void renderSprite(String sprite, double posPixX, double posPixY, int width, int height) {
+        if (sprite == null) {
+            invalidDrawCalls++;
+            return;
+        }
+        fill(spriteColor(sprite), posPixX - camera.getOffsetX(), posPixY - camera.getOffsetY(), width, height);
+    }
+
+    @Override
+    public void renderPlayer() {
+        fill(toArgb(Color.BLUE), camera.getPlayerCameraX(), camera.getPlayerCameraY(), Constant.TILE_SIZE, Constant.TILE_SIZE);
+    }
+
+    @Override
+    public void renderPlayerImg(Image image) {
+        if (image == null) {
+            invalidDrawCalls++;
+            return;
+        }
+        fill(IMAGE_COLOR, camera.getPlayerCameraX(), camera.getPlayerCameraY(), Constant.TILE_SIZE, Constant.TILE_SIZE);
+    }
+
+    @Override
+    public void renderPlayerSprite(String sprite) {
+        if (sprite == null) {
+            invalidDrawCalls++;
+            return;
+        }
+        fill(spriteColor(sprite), camera.getPlayerCameraX(), camera.getPlayerCameraY(), Constant.TILE_SIZE, Constant.TILE_SIZE);
+    }
+
+    @Override
+    public void renderParallax() {
+        fill(BACKGROUND_COLOR, 0, 0, width, height);
+    }
+
+    @Override
+    public void clearHud() {
+    }
+
+    @Override
+    public void renderUILifes(boolean type, int position) {
+        hudDrawCalls++;
+    }
+
+    @Override
+    public void renderUIKeys(boolean type, int position) {
+        hudDrawCalls++;
+    }
+
+    @Override
+    public void gameOver() {
+        gameOver = true;
+    }
+
+    @Override
+    public void gameWin() {
+        gameWin = true;
+    }
+
+    @Override
+    public void flush() {
+        frames++;
+    }
+
+    @Override
+    public void setQualityTier(QualityTier tier) {
+        qualityTier = tier;
+    }
+
+    /**
+     * Returns the quality tier last set.
+     *
+     * @return the quality tier
+     */
+    public QualityTier getQualityTier() {
+        return qualityTier;
+    }
+
+    /**
+     * Returns the framebuffer in row-major ARGB order.
+     *
+     * @return the framebuffer (not a copy)
+     */
+    public int[] getFramebuffer() {
+        return framebuffer;
+    }
+
+    /**
+     * Returns a 64-bit FNV-1a hash of the framebuffer, for golden-image comparisons.
+     *
+     * @return the framebuffer checksum
+     */
+    public long checksum() {
+        long hash = 0xcbf29ce484222325L;
+        for (int pixel : framebuffer) {
+            hash ^= pixel;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    public int getWidth() { return width; }
+
+    public int getHeight() { return height; }
+
+    public int getDrawCalls() { return drawCalls; }
+
+    public int getInvalidDrawCalls() { return invalidDrawCalls; }
+
+    public int getHudDrawCalls() { return hudDrawCalls; }
+
+    public int getFrames() { return frames; }
+
+    public boolean isGameOver() { return gameOver; }
+
+    public boolean isGameWin() { return gameWin; }
+
+    /**
+     * Resets all counters.
+     */
+    public void resetCounters() {
+        drawCalls = 0;
+        invalidDrawCalls = 0;
+        hudDrawCalls = 0;
+        frames = 0;
+    }
+
+    /**
+     * Validates and rasterizes a screen rectangle, clipped to the framebuffer.
+     */
+    private void fill(int argb, double x, double y, double w, double h) {
+        if (!Double.isFinite(x) || !Double.isFinite(y) || !(w > 0) || !(h > 0)) {
+            invalidDrawCalls++;
+            return;
+        }
+        drawCalls++;
+        int x0 = Math.min(width, Math.max(0, (int) Math.floor(x)));
+        int y0 = Math.min(height, Math.max(0, (int) Math.floor(y)));
+        int x1 = Math.max(0, Math.min(width, (int) Math.ceil(x + w)));
+        int y1 = Math.max(0, Math.min(height, (int) Math.ceil(y + h)));
+        if (x0 >= x1 || y0 >= y1) {
+            return; // completely outside the framebuffer (e.g. in the camera margin)
+        }
+        for (int row = y0; row < y1; row++) {
+            Arrays.fill(framebuffer, row * width + x0, row * width + x1, argb);
+        }
+    }
+
+    /**
+     * Derives a stable opaque color from a sprite name.
+     */
+    private static int spriteColor(String sprite) {
+        return 0xFF000000 | (sprite.hashCode() & 0x00FFFFFF);
+    }
+
+    /**
+     * Converts a JavaFX color to an opaque ARGB int.
+     */
+    private static int toArgb(Color color) {
+        int r = (int) Math.round(color.getRed() * 255);
+        int g = (int) Math.round(color.getGreen() * 255);
+        int b = (int) Math.round(color.getBlue() * 255);
+        return 0xFF000000 | (r << 16) | (g << 8) | b;
+    }
+}
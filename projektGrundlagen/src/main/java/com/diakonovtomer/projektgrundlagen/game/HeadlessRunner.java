@@ -0,0 +1,204 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.game;
+
+import com.diakonovtomer.projektgrundlagen.Constant;
+import com.diakonovtomer.projektgrundlagen.entities.EntitiesPlayer;
+import com.diakonovtomer.projektgrundlagen.input.InputBindings;
+import com.diakonovtomer.projektgrundlagen.input.InputRecording;
+import com.diakonovtomer.projektgrundlagen.input.InputScript;
+import com.diakonovtomer.projektgrundlagen.input.InputState;
+import com.diakonovtomer.projektgrundlagen.level.Generator;
+import com.diakonovtomer.projektgrundlagen.level.Level;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Runs the game simulation without JavaFX.
+ * <p>
+ * A level is loaded from an XML file (or generated from a seed), the player is
+ * driven by an {@link InputScript} and the {@link GameSimulation} is ticked as
+ * fast as the CPU allows. No toolkit is started and no image is loaded, so many
+ * runs can be simulated for balancing and regression tests.
+ * </p>
+ *
+ * <p>Usage:</p>
+ * <pre>
+ * HeadlessRunner [--level FILE | --seed N] [--input SCRIPT | --replay FILE] [--max-ticks N] [--runs N]
+ * </pre>
+ * <p>
+ * For example {@code --seed 42 --input "R:600,RJ:60,R:600" --runs 1000}.
+ * {@code --replay} plays back an {@link InputRecording} at full speed; a seeded
+ * recording regenerates its level, otherwise the level file must match the
+ * recorded hash.
+ * Since {@link GameState} is global, runs are executed one after another.
+ * </p>
+ *
+ * @author adiakonov
+ */
+public class HeadlessRunner {
+
+    /**
+     * Outcome of one headless run.
+     */
+    public static final class Result {
+        /** Number of ticks simulated. */
+        public final long ticks;
+        /** Wall-clock duration of the run in nanoseconds. */
+        public final long nanos;
+        /** Final player position in pixels. */
+        public final double posX, posY;
+        /** Final lives and keys. */
+        public final int lives, keys;
+        /** Whether the run ended with game over or a win. */
+        public final boolean gameOver, gameWin;
+        /** Snapshot of the last tick. */
+        public final WorldSnapshot snapshot;
+
+        Result(long ticks, long nanos, WorldSnapshot snapshot) {
+            this.ticks = ticks;
+            this.nanos = nanos;
+            this.posX = snapshot.posX;
+            this.posY = snapshot.posY;
+            this.lives = snapshot.lives;
+            this.keys = snapshot.keys;
+            this.gameOver = snapshot.gameOver;
+            this.gameWin = snapshot.gameWin;
+            this.snapshot = snapshot;
+        }
+
+        /**
+         * Returns the simulation speed of the run.
+         *
+         * @return simulated ticks per wall-clock second
+         */
+        public double getTicksPerSecond() {
+            return nanos == 0 ? 0 : ticks * 1_000_000_000.0 / nanos;
+        }
+
+        @Override
+        public String toString() {
+            return "ticks=" + ticks
+                    + " pos=" + posX + "," + posY
+                    + " lives=" + lives
+                    + " keys=" + keys
+                    + " gameOver=" + gameOver
+                    + " win=" + gameWin
+                    + " ticksPerSecond=" + Math.round(getTicksPerSecond());
+        }
+    }
+
+    /**
+     * Runs one simulation of a level file.
+     * <p>
+     * The simulation ends when the game is lost or won, when the script is
+     * exhausted, or after {@code maxTicks} ticks, whichever comes first.
+     * </p>
+     *
+     * @param levelFile the level XML file
+     * @param script    the per-tick input
+     * @param maxTicks  the tick limit, or a negative value for no limit
+     * @return the result of the run
+     */
+    public static Result run(String levelFile, InputScript script, long maxTicks) {
+        GameState.reset();
+        Level level = new Level(levelFile, null);
+        double[] pos = level.findPlayerPositionPix();
+        EntitiesPlayer entitiesPlayer = new EntitiesPlayer(pos[0], pos[1], level);
+        InputState input = new InputState(InputBindings.defaults());
+        GameSimulation simulation = new GameSimulation(level, entitiesPlayer, input);
+
+        long limit = maxTicks < 0 ? Long.MAX_VALUE : maxTicks;
+        long ticks = 0;
+        long start = System.nanoTime();
+        WorldSnapshot snapshot = simulation.getSnapshot();
+        runs:
+        for (int run = 0; run < script.getRunCount(); run++) {
+            int mask = script.getMask(run);
+            for (int i = script.getLength(run); i > 0; i--) {
+                if (ticks >= limit || snapshot.gameOver || snapshot.gameWin) {
+                    break runs;
+                }
+                input.applyMask(mask);
+                simulation.tick(Long.MIN_VALUE); // scripted input only, no queued events
+                snapshot = simulation.getSnapshot();
+                ticks++;
+            }
+        }
+        return new Result(ticks, System.nanoTime() - start, snapshot);
+    }
+
+    /**
+     * Generates a level from a seed into a temporary XML file.
+     *
+     * @param seed the generator seed
+     * @return the temporary file, deleted on exit
+     * @throws IOException if the file cannot be created
+     */
+    public static File generateLevel(long seed) throws IOException {
+        File file = File.createTempFile("level_" + seed + "_", ".xml");
+        file.deleteOnExit();
+        new Generator(Constant.LEVEL_WIDTH, Constant.LEVEL_HEIGHT, seed).saveLevelToFile(file.getPath());
+        return file;
+    }
+
+    /**
+     * Command-line entry point.
+     *
+     * @param args command-line arguments, see the class description
+     * @throws IOException if a generated level cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        String levelFile = "level_output.xml";
+        InputScript script = InputScript.parse("R:" + (Constant.SIMULATION_TICK_RATE * 60));
+        long maxTicks = -1;
+        int runs = 1;
+        InputRecording replay = null;
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--level" -> levelFile = value;
+                case "--seed" -> levelFile = generateLevel(Long.parseLong(value)).getPath();
+                case "--input" -> script = InputScript.parse(value);
+                case "--replay" -> replay = InputRecording.read(Path.of(value));
+                case "--max-ticks" -> maxTicks = Long.parseLong(value);
+                case "--runs" -> runs = Integer.parseInt(value);
+                default -> {
+                    System.err.println("Unknown argument: " + args[i]);
+                    System.err.println("Usage: HeadlessRunner [--level FILE | --seed N] [--input SCRIPT | --replay FILE] [--max-ticks N] [--runs N]");
+                    System.exit(2);
+                }
+            }
+            i++;
+        }
+
+        if (replay != null) {
+            if (replay.isSeeded()) {
+                levelFile = generateLevel(replay.getSeed()).getPath();
+            }
+            if (InputRecording.hashLevel(levelFile) != replay.getLevelCrc()) {
+                System.err.println("Replay was recorded on a different level, it will diverge");
+            }
+            if (replay.getTickRate() != Constant.SIMULATION_TICK_RATE) {
+                System.err.println("Replay was recorded at " + replay.getTickRate() + " ticks/s, it will diverge");
+            }
+            script = replay.getScript();
+        }
+
+        long totalTicks = 0;
+        long start = System.nanoTime();
+        Result result = null;
+        for (int i = 0; i < runs; i++) {
+            result = run(levelFile, script, maxTicks);
+            totalTicks += result.ticks;
+        }
+        long nanos = System.nanoTime() - start;
+        System.out.println("Final state: " + result);
+        System.out.println("Runs: " + runs + ", ticks: " + totalTicks
+                + ", ticks/s: " + Math.round(totalTicks * 1_000_000_000.0 / nanos)
+                + ", runs/min: " + Math.round(runs * 60_000_000_000.0 / nanos));
+    }
+}
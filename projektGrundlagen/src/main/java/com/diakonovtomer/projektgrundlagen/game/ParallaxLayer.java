@@ -0,0 +1,100 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.game;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+
+/**
+ * A single background layer of the parallax effect.
+ * <p>
+ * At construction the source image is repeated horizontally into a pre-composed
+ * strip that is at least one viewport width wider than the viewport. Drawing the
+ * layer then takes one blit, or two when the visible window wraps around the end
+ * of the strip.
+ * </p>
+ *
+ * @author adiakonov
+ */
+public class ParallaxLayer {
+
+    /** Pre-composed, horizontally repeated image. */
+    private final Image strip;
+
+    /** How fast the layer scrolls relative to the camera (0 = fixed, 1 = with the world). */
+    private final double scrollFactor;
+
+    /**
+     * Builds the strip for the given image.
+     *
+     * @param image         the background tile to repeat
+     * @param scrollFactor  the scroll speed relative to the camera
+     * @param viewportWidth the width of the visible area in pixels
+     */
+    public ParallaxLayer(Image image, double scrollFactor, double viewportWidth) {
+        this.scrollFactor = scrollFactor;
+        this.strip = buildStrip(image, viewportWidth);
+    }
+
+    /**
+     * Records the layer, aligned to the bottom of the viewport, into a command buffer.
+     *
+     * @param buffer         the command buffer to append to
+     * @param layer          the render layer of this background
+     * @param cameraX        the horizontal camera offset in pixels
+     * @param viewportWidth  the width of the visible area in pixels
+     * @param viewportHeight the height of the visible area in pixels
+     */
+    public void render(RenderCommandBuffer buffer, int layer, double cameraX, double viewportWidth, double viewportHeight) {
+        double stripWidth = strip.getWidth();
+        double stripHeight = strip.getHeight();
+        double y = viewportHeight - stripHeight;
+
+        // Смещение по X с учётом коэффициента параллакса
+        double offsetX = (cameraX * scrollFactor) % stripWidth;
+        if (offsetX < 0) offsetX += stripWidth;
+
+        buffer.addImage(layer, strip, -offsetX, y, stripWidth, stripHeight);
+        if (stripWidth - offsetX < viewportWidth) {
+            buffer.addImage(layer, strip, stripWidth - offsetX, y, stripWidth, stripHeight); // wrap-around
+        }
+    }
+
+    /**
+     * Returns the scroll factor of this layer.
+     *
+     * @return the scroll factor
+     */
+    public double getScrollFactor() {
+        return scrollFactor;
+    }
+
+    /**
+     * Returns the pre-composed strip.
+     *
+     * @return the strip image
+     */
+    public Image getStrip() {
+        return strip;
+    }
+
+    /**
+     * Repeats the image horizontally until the strip covers at least two viewport widths.
+     */
+    private static Image buildStrip(Image image, double viewportWidth) {
+        int tileWidth = (int) image.getWidth();
+        int height = (int) image.getHeight();
+        int repeats = (int) Math.ceil(2 * viewportWidth / tileWidth);
+        WritableImage strip = new WritableImage(tileWidth * repeats, height);
+        PixelReader reader = image.getPixelReader();
+        PixelWriter writer = strip.getPixelWriter();
+        for (int i = 0; i < repeats; i++) {
+            writer.setPixels(i * tileWidth, 0, tileWidth, height, reader, 0, 0);
+        }
+        return strip;
+    }
+}
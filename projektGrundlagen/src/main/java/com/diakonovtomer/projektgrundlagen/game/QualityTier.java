@@ -0,0 +1,46 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.game;
+
+/**
+ * Rendering quality levels, from best to cheapest.
+ * <p>
+ * {@link FrameBudgetScheduler} steps down through the tiers when frames run over
+ * budget and back up when there is headroom; the {@link Renderer} applies them.
+ * </p>
+ *
+ * @author adiakonov
+ */
+public enum QualityTier {
+    /** Everything is drawn. */
+    FULL,
+    /** The nearest parallax layer is skipped. */
+    NO_NEAR_PARALLAX,
+    /** As above, and the remaining parallax only scrolls in coarse steps, so the background canvas is repainted less often. */
+    COARSE_PARALLAX,
+    /** No parallax at all; the background is a flat color painted once. */
+    NO_PARALLAX;
+
+    /** Cached result of {@link #values()}, which allocates a new array on every call. */
+    static final QualityTier[] VALUES = values();
+
+    /**
+     * Returns the next cheaper tier.
+     *
+     * @return the next tier, or this tier if it is the cheapest
+     */
+    public QualityTier lower() {
+        return ordinal() + 1 < VALUES.length ? VALUES[ordinal() + 1] : this;
+    }
+
+    /**
+     * Returns the next better tier.
+     *
+     * @return the previous tier, or this tier if it is the best
+     */
+    public QualityTier higher() {
+        return ordinal() > 0 ? VALUES[ordinal() - 1] : this;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.game;
+
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+
+/**
+ * A single recorded draw operation.
+ * <p>
+ * Commands are pooled and reused by {@link RenderCommandBuffer}, so the fields are
+ * plain and mutable. A command either copies a source rectangle of a texture into
+ * a destination rectangle or, when {@link #texture} is {@code null}, fills the
+ * destination rectangle with {@link #color}.
+ * </p>
+ *
+ * @author adiakonov
+ */
+public final class RenderCommand {
+    /** Layer the command belongs to; lower layers are drawn first. */
+    int layer;
+    /** Texture to draw from, or {@code null} for a color fill. */
+    Image texture;
+    /** Small integer identifying the texture, used for sorting. */
+    int textureId;
+    /** Fill color used when {@link #texture} is {@code null}. */
+    Color color;
+    /** Source rectangle inside the texture. */
+    double sx, sy, sw, sh;
+    /** Destination rectangle on screen. */
+    double dx, dy, dw, dh;
+
+    public int getLayer() { return layer; }
+
+    public Image getTexture() { return texture; }
+
+    public int getTextureId() { return textureId; }
+
+    public Color getColor() { return color; }
+
+    public double getSourceX() { return sx; }
+
+    public double getSourceY() { return sy; }
+
+    public double getSourceWidth() { return sw; }
+
+    public double getSourceHeight() { return sh; }
+
+    public double getX() { return dx; }
+
+    public double getY() { return dy; }
+
+    public double getWidth() { return dw; }
+
+    public double getHeight() { return dh; }
+}
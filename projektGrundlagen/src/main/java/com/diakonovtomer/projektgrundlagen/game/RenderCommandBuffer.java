@@ -0,0 +1,281 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.game;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+
+/**
+ * Records the draw operations of one frame and submits them in a single pass.
+ * <p>
+ * Entities and layers append lightweight {@link RenderCommand}s instead of drawing
+ * immediately. At the end of the frame the buffer is sorted by layer and then by
+ * texture (keeping the original order for equal keys) and submitted to a
+ * {@link GraphicsContext}. This groups draws from the same texture together and
+ * separates "what to draw" from "how to draw": any backend can walk the sorted
+ * commands through {@link #size()} and {@link #get(int)}.
+ * </p>
+ * <p>
+ * Commands are pooled; after warm-up recording a frame does not allocate.
+ * </p>
+ *
+ * @author adiakonov
+ */
+public class RenderCommandBuffer {
+
+    /** First layer used by the parallax backgrounds (one layer per background). */
+    public static final int LAYER_PARALLAX = 0;
+    /** Layer of the static ground tiles. */
+    public static final int LAYER_GROUND = 8;
+    /** Layer of the interactive objects (keys, spikes, door). */
+    public static final int LAYER_OBJECTS = 9;
+    /** Layer of the player. */
+    public static final int LAYER_PLAYER = 10;
+
+    /** Pool of reusable commands. */
+    private RenderCommand[] commands = new RenderCommand[256];
+
+    /** Sort keys: layer, texture id and recording index packed into one long. */
+    private long[] sortKeys = new long[256];
+
+    /** Number of commands recorded this frame. */
+    private int count = 0;
+
+    /** Whether {@link #sortKeys} reflects the current commands. */
+    private boolean sorted = false;
+
+    /** Texture ids assigned in order of first use; evicted textures are forgotten. */
+    private final Map<Image, Integer> textureIds = new WeakHashMap<>();
+
+    /** Next texture id to hand out. */
+    private int nextTextureId = 1;
+
+    /** Draw calls issued during the current frame. */
+    private int frameDrawCalls = 0;
+
+    /** Texture changes during the current frame. */
+    private int frameTextureSwitches = 0;
+
+    /** Draw calls issued during the last completed frame. */
+    private int lastDrawCalls = 0;
+
+    /** Texture changes during the last completed frame. */
+    private int lastTextureSwitches = 0;
+
+    /**
+     * Records a textured draw.
+     *
+     * @param layer   the layer to draw on
+     * @param texture the source texture
+     * @param sx      source X
+     * @param sy      source Y
+     * @param sw      source width
+     * @param sh      source height
+     * @param dx      destination X
+     * @param dy      destination Y
+     * @param dw      destination width
+     * @param dh      destination height
+     */
+    public void addImage(int layer, Image texture, double sx, double sy, double sw, double sh,
+            double dx, double dy, double dw, double dh) {
+        RenderCommand c = next();
+        c.layer = layer;
+        c.texture = texture;
+        c.textureId = textureId(texture);
+        c.color = null;
+        c.sx = sx; c.sy = sy; c.sw = sw; c.sh = sh;
+        c.dx = dx; c.dy = dy; c.dw = dw; c.dh = dh;
+    }
+
+    /**
+     * Records a draw of a whole texture.
+     *
+     * @param layer   the layer to draw on
+     * @param texture the source texture
+     * @param dx      destination X
+     * @param dy      destination Y
+     * @param dw      destination width
+     * @param dh      destination height
+     */
+    public void addImage(int layer, Image texture, double dx, double dy, double dw, double dh) {
+        addImage(layer, texture, 0, 0, texture.getWidth(), texture.getHeight(), dx, dy, dw, dh);
+    }
+
+    /**
+     * Records a filled rectangle. Fully transparent fills are dropped.
+     *
+     * @param layer the layer to draw on
+     * @param color the fill color
+     * @param dx    destination X
+     * @param dy    destination Y
+     * @param dw    destination width
+     * @param dh    destination height
+     */
+    public void addFill(int layer, Color color, double dx, double dy, double dw, double dh) {
+        if (color.getOpacity() == 0) {
+            return;
+        }
+        RenderCommand c = next();
+        c.layer = layer;
+        c.texture = null;
+        c.textureId = 0;
+        c.color = color;
+        c.dx = dx; c.dy = dy; c.dw = dw; c.dh = dh;
+    }
+
+    /**
+     * Sorts the recorded commands by layer, then texture, keeping recording order otherwise.
+     */
+    public void sort() {
+        for (int i = 0; i < count; i++) {
+            RenderCommand c = commands[i];
+            sortKeys[i] = ((long) c.layer << 56) | ((long) (c.textureId & 0xFFFFFF) << 32) | i;
+        }
+        Arrays.sort(sortKeys, 0, count);
+        sorted = true;
+    }
+
+    /**
+     * Returns the number of recorded commands.
+     *
+     * @return the command count
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Returns the command at the given position in submission order.
+     * Sorts the buffer first if needed.
+     *
+     * @param index the position in submission order
+     * @return the command
+     */
+    public RenderCommand get(int index) {
+        if (!sorted) {
+            sort();
+        }
+        return commands[(int) sortKeys[index]];
+    }
+
+    /**
+     * Sorts and draws all recorded commands, then clears the buffer.
+     *
+     * @param gc the graphics context to draw into
+     */
+    public void submit(GraphicsContext gc) {
+        submit(gc, null, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        clear();
+    }
+
+    /**
+     * Sorts and draws the recorded commands of the given layer range that intersect
+     * the dirty regions. The buffer is kept so further ranges can be submitted to
+     * other canvases; call {@link #clear()} once the frame is done. Clipping to the
+     * regions is up to the caller.
+     *
+     * @param gc       the graphics context to draw into
+     * @param dirty    the areas to repaint, or {@code null} to draw everything
+     * @param minLayer the lowest layer to draw
+     * @param maxLayer the highest layer to draw
+     */
+    public void submit(GraphicsContext gc, DirtyRegionTracker dirty, int minLayer, int maxLayer) {
+        Image current = null;
+        int switches = 0;
+        int drawn = 0;
+        for (int i = 0; i < count; i++) {
+            RenderCommand c = get(i);
+            if (c.layer < minLayer || c.layer > maxLayer) {
+                continue;
+            }
+            if (dirty != null && !dirty.intersects(c.dx, c.dy, c.dw, c.dh)) {
+                continue;
+            }
+            drawn++;
+            if (c.texture == null) {
+                gc.setFill(c.color);
+                gc.fillRect(c.dx, c.dy, c.dw, c.dh);
+            } else {
+                if (c.texture != current) {
+                    current = c.texture;
+                    switches++;
+                }
+                gc.drawImage(c.texture, c.sx, c.sy, c.sw, c.sh, c.dx, c.dy, c.dw, c.dh);
+            }
+        }
+        frameDrawCalls += drawn;
+        frameTextureSwitches += switches;
+    }
+
+    /**
+     * Ends the frame: discards all recorded commands and publishes the frame's counters.
+     */
+    public void clear() {
+        lastDrawCalls = frameDrawCalls;
+        lastTextureSwitches = frameTextureSwitches;
+        frameDrawCalls = 0;
+        frameTextureSwitches = 0;
+        for (int i = 0; i < count; i++) {
+            commands[i].texture = null; // do not keep textures alive through the pool
+            commands[i].color = null;
+        }
+        count = 0;
+        sorted = false;
+    }
+
+    /**
+     * Returns the number of draw calls issued during the last frame.
+     *
+     * @return the draw call count
+     */
+    public int getLastDrawCalls() {
+        return lastDrawCalls;
+    }
+
+    /**
+     * Returns the number of texture changes during the last frame.
+     *
+     * @return the texture switch count
+     */
+    public int getLastTextureSwitches() {
+        return lastTextureSwitches;
+    }
+
+    /**
+     * Returns a pooled command, growing the pool if needed.
+     */
+    private RenderCommand next() {
+        if (count == commands.length) {
+            commands = Arrays.copyOf(commands, count * 2);
+            sortKeys = Arrays.copyOf(sortKeys, count * 2);
+        }
+        RenderCommand c = commands[count];
+        if (c == null) {
+            c = new RenderCommand();
+            commands[count] = c;
+        }
+        count++;
+        sorted = false;
+        return c;
+    }
+
+    /**
+     * Returns the id of a texture, assigning a new one on first use.
+     * Id 0 is reserved for color fills.
+     */
+    private int textureId(Image texture) {
+        Integer id = textureIds.get(texture);
+        if (id == null) {
+            id = nextTextureId;
+            nextTextureId = (nextTextureId & 0xFFFFFF) + 1;
+            textureIds.put(texture, id);
+        }
+        return id;
+    }
+}
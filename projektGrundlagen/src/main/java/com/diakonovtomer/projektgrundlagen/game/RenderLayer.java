@@ -0,0 +1,92 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.game;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+
+/**
+ * One canvas of the renderer's layer stack.
+ * <p>
+ * Each layer owns its own {@link Canvas} and draws the recorded commands whose
+ * layer lies in {@code [minLayer, maxLayer]}. A layer is only repainted when it
+ * has been invalidated, so unchanged layers keep their pixels between frames.
+ * </p>
+ *
+ * @author adiakonov
+ */
+public class RenderLayer {
+
+    /** Canvas of this layer. */
+    private final Canvas canvas;
+
+    /** Graphics context of {@link #canvas}. */
+    private final GraphicsContext gc;
+
+    /** Lowest command layer drawn on this canvas. */
+    private final int minLayer;
+
+    /** Highest command layer drawn on this canvas. */
+    private final int maxLayer;
+
+    /** Whether the layer has to be repainted this frame. */
+    private boolean needsRedraw = true;
+
+    /**
+     * Creates a layer with its own canvas.
+     *
+     * @param width    the canvas width in pixels
+     * @param height   the canvas height in pixels
+     * @param minLayer the lowest command layer drawn on this canvas
+     * @param maxLayer the highest command layer drawn on this canvas
+     */
+    public RenderLayer(double width, double height, int minLayer, int maxLayer) {
+        this.canvas = new Canvas(width, height);
+        this.gc = canvas.getGraphicsContext2D();
+        this.minLayer = minLayer;
+        this.maxLayer = maxLayer;
+    }
+
+    /**
+     * Requests a full repaint of this layer.
+     */
+    public void invalidate() {
+        needsRedraw = true;
+    }
+
+    /**
+     * Returns whether this layer has to be repainted.
+     *
+     * @return true if invalidated since the last repaint
+     */
+    public boolean needsRedraw() {
+        return needsRedraw;
+    }
+
+    /**
+     * Clears the invalidation flag after the layer has been repainted.
+     */
+    public void markRedrawn() {
+        needsRedraw = false;
+    }
+
+    /**
+     * Checks whether commands of the given layer are drawn on this canvas.
+     *
+     * @param layer the command layer
+     * @return true if the layer belongs to this canvas
+     */
+    public boolean contains(int layer) {
+        return layer >= minLayer && layer <= maxLayer;
+    }
+
+    public int getMinLayer() { return minLayer; }
+
+    public int getMaxLayer() { return maxLayer; }
+
+    public Canvas getCanvas() { return canvas; }
+
+    public GraphicsContext getGraphicsContext() { return gc; }
+}
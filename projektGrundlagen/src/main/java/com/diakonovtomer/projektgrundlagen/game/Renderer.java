@@ -0,0 +1,185 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.game;
+
+import com.diakonovtomer.projektgrundlagen.level.GroundLayer;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+
+/**
+ * Rendering backend used by the level, the entities and the game loop.
+ * <p>
+ * All world coordinates are in pixels; implementations translate them through
+ * their {@link GameCamera}. {@link GameRenderer} draws to a stack of JavaFX
+ * canvases, {@link HeadlessRenderer} rasterizes into an {@code int[]} framebuffer
+ * without starting the FX toolkit, for benchmarks and golden-image tests.
+ * </p>
+ * <p>
+ * A frame is driven as: {@link #beginFrame()}, the {@code render*} calls, then
+ * {@link #flush()}.
+ * </p>
+ *
+ * @author adiakonov
+ */
+public interface Renderer {
+
+    /**
+     * Returns the camera used to translate world to screen coordinates.
+     *
+     * @return the camera
+     */
+    GameCamera getCamera();
+
+    /**
+     * Starts a frame. Must be called after the camera has been updated.
+     */
+    void beginFrame();
+
+    /**
+     * Selects the layer that following world draws are recorded on.
+     *
+     * @param layer one of the {@code RenderCommandBuffer.LAYER_*} constants
+     */
+    void setLayer(int layer);
+
+    /**
+     * Checks whether draws on the given layer are needed this frame.
+     *
+     * @param layer one of the {@code RenderCommandBuffer.LAYER_*} constants
+     * @return true if the layer will be repainted
+     */
+    boolean needsRedraw(int layer);
+
+    /**
+     * Marks an area of the world as changed.
+     *
+     * @param posPixX X in world pixels
+     * @param posPixY Y in world pixels
+     * @param width   width in pixels
+     * @param height  height in pixels
+     */
+    void markDirty(double posPixX, double posPixY, double width, double height);
+
+    /**
+     * Marks the player's screen area as changed.
+     */
+    void markPlayerDirty();
+
+    /**
+     * Reacts to a tile mutation of the level.
+     *
+     * @param type the layer type of the change ({@code "ground"} or {@code "object"})
+     * @param x    the X coordinate in tile units
+     * @param y    the Y coordinate in tile units
+     */
+    void onTileChanged(String type, int x, int y);
+
+    /**
+     * Draws the visible part of the static ground layer.
+     *
+     * @param groundLayer the ground layer of the level
+     */
+    void renderGroundLayer(GroundLayer groundLayer);
+
+    /**
+     * Fills a world rectangle with a color.
+     *
+     * @param color   the fill color
+     * @param posPixX X in world pixels
+     * @param posPixY Y in world pixels
+     * @param width   width in pixels
+     * @param height  height in pixels
+     */
+    void renderCell(Color color, double posPixX, double posPixY, int width, int height);
+
+    /**
+     * Draws an image into a world rectangle.
+     *
+     * @param image   the image to draw
+     * @param posPixX X in world pixels
+     * @param posPixY Y in world pixels
+     * @param width   width in pixels
+     * @param height  height in pixels
+     */
+    void renderTileImage(Image image, double posPixX, double posPixY, int width, int height);
+
+    /**
+     * Draws a sprite of the texture atlas into a world rectangle.
+     *
+     * @param sprite  the sprite name (e.g. {@code Constant.GROUND_PNG})
+     * @param posPixX X in world pixels
+     * @param posPixY Y in world pixels
+     * @param width   width in pixels
+     * @param height  height in pixels
+     */
+    void renderSprite(String sprite, double posPixX, double posPixY, int width, int height);
+
+    /**
+     * Draws the player as a plain rectangle.
+     */
+    void renderPlayer();
+
+    /**
+     * Draws the player image at its screen position.
+     *
+     * @param image the player image
+     */
+    void renderPlayerImg(Image image);
+
+    /**
+     * Draws the player sprite of the texture atlas at its screen position.
+     *
+     * @param sprite the sprite name
+     */
+    void renderPlayerSprite(String sprite);
+
+    /**
+     * Draws the parallax backgrounds.
+     */
+    void renderParallax();
+
+    /**
+     * Clears the HUD before it is redrawn.
+     */
+    void clearHud();
+
+    /**
+     * Draws one life slot of the HUD.
+     *
+     * @param type     true for a full life, false for an empty one
+     * @param position the slot index, starting at 1
+     */
+    void renderUILifes(boolean type, int position);
+
+    /**
+     * Draws one key slot of the HUD.
+     *
+     * @param type     true for a collected key, false for a missing one
+     * @param position the slot index, starting at 1
+     */
+    void renderUIKeys(boolean type, int position);
+
+    /**
+     * Shows the "Game Over" screen.
+     */
+    void gameOver();
+
+    /**
+     * Shows the "You win" screen.
+     */
+    void gameWin();
+
+    /**
+     * Ends the frame and submits everything drawn since {@link #beginFrame()}.
+     */
+    void flush();
+
+    /**
+     * Sets the rendering quality, see {@link QualityTier}.
+     *
+     * @param tier the quality tier
+     */
+    void setQualityTier(QualityTier tier);
+}
@@ -0,0 +1,157 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.game;
+
+import com.diakonovtomer.projektgrundlagen.Constant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+
+/**
+ * Packs the small sprites (tiles, objects, player and HUD icons) into a single image.
+ * <p>
+ * Sprites are placed row by row ("shelf packing"), tallest first, with a
+ * {@link #PADDING} pixel gap so scaled draws do not bleed into neighbours.
+ * A lookup table maps every sprite name to its source rectangle, and
+ * {@link #draw(GraphicsContext, String, double, double, double, double)} uses the
+ * 9-argument {@code drawImage} overload so every sprite draw uses the same texture.
+ * </p>
+ * <p>
+ * The parallax backgrounds are not packed; they are large and drawn on their own.
+ * </p>
+ *
+ * @author adiakonov
+ */
+public class TextureAtlas {
+
+    /** Sprites packed into the shared atlas. */
+    public static final String[] ATLAS_SPRITES = {
+        Constant.GROUND_PNG,
+        Constant.PLATFORM_PNG,
+        Constant.KEY_PNG,
+        Constant.SPIKES_PNG,
+        Constant.DOOR_PNG,
+        Constant.PLAYER_PNG_L,
+        Constant.PLAYER_PNG_R,
+        Constant.UI_LIFE_FULL,
+        Constant.UI_LIFE_EMPTY,
+        Constant.UI_KEY_FULL,
+        Constant.UI_KEY_EMPTY
+    };
+
+    /** Gap in pixels between packed sprites. */
+    public static final int PADDING = 1;
+
+    /** Maximum width of the atlas image in pixels. */
+    private static final int MAX_WIDTH = 1024;
+
+    /** Lazily built atlas shared by the whole game. */
+    private static TextureAtlas shared;
+
+    /** The packed image. */
+    private final WritableImage image;
+
+    /** Source rectangles keyed by sprite name. */
+    private final Map<String, Rectangle2D> regions = new HashMap<>();
+
+    /**
+     * Packs the given sprites, taken from {@link AssetRegistry}, into one image.
+     *
+     * @param names the sprite names to pack
+     */
+    public TextureAtlas(String... names) {
+        String[] sorted = names.clone();
+        Arrays.sort(sorted, Comparator.comparingDouble((String n) -> AssetRegistry.getImage(n).getHeight()).reversed());
+
+        // First pass: compute positions
+        int x = PADDING;
+        int y = PADDING;
+        int shelfHeight = 0;
+        int atlasWidth = 0;
+        for (String name : sorted) {
+            Image sprite = AssetRegistry.getImage(name);
+            int w = (int) sprite.getWidth();
+            int h = (int) sprite.getHeight();
+            if (x + w + PADDING > MAX_WIDTH) {
+                x = PADDING;
+                y += shelfHeight + PADDING;
+                shelfHeight = 0;
+            }
+            regions.put(name, new Rectangle2D(x, y, w, h));
+            x += w + PADDING;
+            shelfHeight = Math.max(shelfHeight, h);
+            atlasWidth = Math.max(atlasWidth, x);
+        }
+        int atlasHeight = y + shelfHeight + PADDING;
+
+        // Second pass: copy pixels
+        image = new WritableImage(Math.max(1, atlasWidth), Math.max(1, atlasHeight));
+        PixelWriter writer = image.getPixelWriter();
+        for (String name : sorted) {
+            Rectangle2D region = regions.get(name);
+            PixelReader reader = AssetRegistry.getImage(name).getPixelReader();
+            writer.setPixels((int) region.getMinX(), (int) region.getMinY(),
+                    (int) region.getWidth(), (int) region.getHeight(), reader, 0, 0);
+        }
+    }
+
+    /**
+     * Returns the atlas containing {@link #ATLAS_SPRITES}, building it on first use.
+     *
+     * @return the shared atlas
+     */
+    public static synchronized TextureAtlas shared() {
+        if (shared == null) {
+            shared = new TextureAtlas(ATLAS_SPRITES);
+        }
+        return shared;
+    }
+
+    /**
+     * Draws a sprite from the atlas, scaled into the destination rectangle.
+     *
+     * @param gc     the graphics context to draw into
+     * @param name   the sprite name (e.g. {@link Constant#GROUND_PNG})
+     * @param x      destination X in pixels
+     * @param y      destination Y in pixels
+     * @param width  destination width in pixels
+     * @param height destination height in pixels
+     */
+    public void draw(GraphicsContext gc, String name, double x, double y, double width, double height) {
+        Rectangle2D region = regions.get(name);
+        if (region == null) {
+            gc.drawImage(AssetRegistry.getImage(name), x, y, width, height); // not packed
+            return;
+        }
+        gc.drawImage(image, region.getMinX(), region.getMinY(), region.getWidth(), region.getHeight(),
+                x, y, width, height);
+    }
+
+    /**
+     * Returns the source rectangle of a sprite inside the atlas.
+     *
+     * @param name the sprite name
+     * @return the region, or {@code null} if the sprite is not packed
+     */
+    public Rectangle2D getRegion(String name) {
+        return regions.get(name);
+    }
+
+    /**
+     * Returns the packed atlas image.
+     *
+     * @return the atlas image
+     */
+    public Image getImage() {
+        return image;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.game;
+
+import com.diakonovtomer.projektgrundlagen.Constant;
+import com.diakonovtomer.projektgrundlagen.level.GroundLayer;
+import com.diakonovtomer.projektgrundlagen.level.TileChangeListener;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+
+/**
+ * Caches the static ground layer as pre-rendered images of
+ * {@link Constant#TILE_CHUNK_SIZE} x {@link Constant#TILE_CHUNK_SIZE} tiles.
+ * <p>
+ * Chunks are baked lazily the first time they become visible, so a frame costs
+ * one {@code drawImage} per visible chunk instead of one per tile. The cache keeps
+ * at most {@link Constant#TILE_CHUNK_CACHE_SIZE} chunks in least-recently-used order
+ * and drops chunks that are more than {@link Constant#TILE_CHUNK_EVICT_DISTANCE}
+ * chunks away from the camera. A chunk is invalidated when one of its tiles changes.
+ * </p>
+ *
+ * @author adiakonov
+ */
+public class TileChunkCache implements TileChangeListener {
+
+    /** The ground layer that is baked into chunks. */
+    private final GroundLayer groundLayer;
+
+    /** Size of a chunk in tiles. */
+    private final int chunkSize;
+
+    /** Size of a chunk in pixels. */
+    private final int chunkPixels;
+
+    /** Number of chunk columns covering the layer. */
+    private final int chunksX;
+
+    /** Number of chunk rows covering the layer. */
+    private final int chunksY;
+
+    /** Baked chunk images keyed by chunk index, kept in access order. */
+    private final Map<Integer, Image> chunks;
+
+    /** Visible chunk range of the last frame, used to evict only when the camera crosses a chunk. */
+    private int lastStartX = -1, lastEndX = -1, lastStartY = -1, lastEndY = -1;
+
+    /**
+     * Creates a chunk cache for the given ground layer.
+     *
+     * @param groundLayer the static layer to cache
+     */
+    public TileChunkCache(GroundLayer groundLayer) {
+        this.groundLayer = groundLayer;
+        this.chunkSize = Constant.TILE_CHUNK_SIZE;
+        this.chunkPixels = chunkSize * Constant.TILE_SIZE;
+        this.chunksX = (groundLayer.lengthX + chunkSize - 1) / chunkSize;
+        this.chunksY = (groundLayer.lengthY + chunkSize - 1) / chunkSize;
+        this.chunks = new LinkedHashMap<>(32, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Image> eldest) {
+                return size() > Constant.TILE_CHUNK_CACHE_SIZE;
+            }
+        };
+    }
+
+    /**
+     * Draws every chunk that overlaps the camera, baking missing chunks on demand.
+     *
+     * @param renderer the renderer providing the camera and the target surface
+     */
+    public void render(Renderer renderer) {
+        GameCamera camera = renderer.getCamera();
+        int startX = camera.getFirstVisibleTileX(groundLayer.lengthX) / chunkSize;
+        int endX = (camera.getLastVisibleTileX(groundLayer.lengthX) + chunkSize - 1) / chunkSize;
+        int startY = camera.getFirstVisibleTileY(groundLayer.lengthY) / chunkSize;
+        int endY = (camera.getLastVisibleTileY(groundLayer.lengthY) + chunkSize - 1) / chunkSize;
+
+        for (int cy = startY; cy < endY; cy++) {
+            for (int cx = startX; cx < endX; cx++) {
+                Image image = chunks.get(cy * chunksX + cx);
+                if (image == null) {
+                    image = bake(cx, cy);
+                    chunks.put(cy * chunksX + cx, image);
+                }
+                renderer.renderTileImage(image, cx * chunkPixels, cy * chunkPixels, (int) image.getWidth(), (int) image.getHeight());
+            }
+        }
+
+        if (startX != lastStartX || endX != lastEndX || startY != lastStartY || endY != lastEndY) {
+            evictFar(startX, endX, startY, endY);
+            lastStartX = startX;
+            lastEndX = endX;
+            lastStartY = startY;
+            lastEndY = endY;
+        }
+    }
+
+    /**
+     * Drops the chunk containing the changed tile so it is baked again on next use.
+     *
+     * @param type the layer type of the change
+     * @param x    the X coordinate in tile units
+     * @param y    the Y coordinate in tile units
+     */
+    @Override
+    public void onTileChanged(String type, int x, int y) {
+        if (Constant.MAP_LAYER_NAME_GROUND.equals(type)) {
+            chunks.remove((y / chunkSize) * chunksX + (x / chunkSize));
+        }
+    }
+
+    /**
+     * Removes all cached chunks.
+     */
+    public void clear() {
+        chunks.clear();
+    }
+
+    /**
+     * Returns the number of chunks currently cached.
+     *
+     * @return the number of baked chunks
+     */
+    public int size() {
+        return chunks.size();
+    }
+
+    /**
+     * Renders the tiles of a single chunk into an off-screen image.
+     *
+     * @param cx the chunk column
+     * @param cy the chunk row
+     * @return the baked chunk image
+     */
+    private Image bake(int cx, int cy) {
+        int tileStartX = cx * chunkSize;
+        int tileStartY = cy * chunkSize;
+        int tilesX = Math.min(chunkSize, groundLayer.lengthX - tileStartX);
+        int tilesY = Math.min(chunkSize, groundLayer.lengthY - tileStartY);
+
+        Canvas canvas = new Canvas(tilesX * Constant.TILE_SIZE, tilesY * Constant.TILE_SIZE);
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        for (int y = 0; y < tilesY; y++) {
+            for (int x = 0; x < tilesX; x++) {
+                groundLayer.layer[tileStartY + y][tileStartX + x].renderTo(gc, x * Constant.TILE_SIZE, y * Constant.TILE_SIZE);
+            }
+        }
+        SnapshotParameters params = new SnapshotParameters();
+        params.setFill(Color.TRANSPARENT);
+        return canvas.snapshot(params, null);
+    }
+
+    /**
+     * Evicts chunks that are further than {@link Constant#TILE_CHUNK_EVICT_DISTANCE}
+     * chunks away from the visible chunk range.
+     */
+    private void evictFar(int startX, int endX, int startY, int endY) {
+        int distance = Constant.TILE_CHUNK_EVICT_DISTANCE;
+        Iterator<Integer> it = chunks.keySet().iterator();
+        while (it.hasNext()) {
+            int key = it.next();
+            int cx = key % chunksX;
+            int cy = key / chunksX;
+            if (cx < startX - distance || cx >= endX + distance || cy < startY - distance || cy >= endY + distance) {
+                it.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.game;
+
+/**
+ * Immutable view of the simulated world after one tick.
+ * <p>
+ * {@link GameSimulation} publishes a new snapshot after every tick and the render
+ * loop only reads the latest one, so drawing never observes a half-updated player.
+ * The snapshot keeps the player position of the previous tick as well, so the
+ * renderer can interpolate between the two.
+ * </p>
+ * <p>
+ * The HUD values and the set of used-up objects are part of the snapshot too, so
+ * the render loop never reads {@link GameState} or object state that the
+ * simulation is changing at the same time.
+ * </p>
+ *
+ * @author adiakonov
+ */
+public final class WorldSnapshot {
+    /** Number of ticks simulated so far. */
+    public final long tick;
+
+    /** {@link System#nanoTime()} at which the snapshot was published. */
+    public final long publishedNanos;
+
+    /** Player position at the start of the tick, in pixels. */
+    public final double prevPosX, prevPosY;
+
+    /** Player position at the end of the tick, in pixels. */
+    public final double posX, posY;
+
+    /** Player direction: true = facing right, false = facing left. */
+    public final boolean direction;
+
+    /** Whether the game was lost or won during this tick. */
+    public final boolean gameOver, gameWin;
+
+    /** Remaining lives and collected keys. */
+    public final int lives, keys;
+
+    /**
+     * Bitset of used-up object tiles (bit {@code y * width + x} of the object layer).
+     * Replaced, never modified, when an object is used up, so it can be shared.
+     */
+    private final long[] usedObjects;
+
+    /**
+     * Creates a snapshot.
+     *
+     * @param tick           the tick counter
+     * @param publishedNanos the publication time in nanoseconds
+     * @param prevPosX       the player X position at the start of the tick
+     * @param prevPosY       the player Y position at the start of the tick
+     * @param posX           the player X position at the end of the tick
+     * @param posY           the player Y position at the end of the tick
+     * @param direction      the player direction
+     * @param gameOver       the game over state
+     * @param gameWin        the win state
+     * @param lives          the remaining lives
+     * @param keys           the collected keys
+     * @param usedObjects    the bitset of used-up object tiles (not copied, must not be modified)
+     */
+    public WorldSnapshot(long tick, long publishedNanos, double prevPosX, double prevPosY,
+            double posX, double posY, boolean direction, boolean gameOver, boolean gameWin,
+            int lives, int keys, long[] usedObjects) {
+        this.tick = tick;
+        this.publishedNanos = publishedNanos;
+        this.prevPosX = prevPosX;
+        this.prevPosY = prevPosY;
+        this.posX = posX;
+        this.posY = posY;
+        this.direction = direction;
+        this.gameOver = gameOver;
+        this.gameWin = gameWin;
+        this.lives = lives;
+        this.keys = keys;
+        this.usedObjects = usedObjects;
+    }
+
+    /**
+     * Returns whether the object on a tile had been used up (e.g. a collected key).
+     *
+     * @param tile the tile index {@code y * width + x} in the object layer
+     * @return true if the object is used up
+     */
+    public boolean isObjectUsed(int tile) {
+        return (usedObjects[tile >>> 6] & (1L << tile)) != 0;
+    }
+
+    /**
+     * Returns whether this snapshot shares its used-up object set with another one.
+     *
+     * @param other the other snapshot, may be null
+     * @return true if no object was used up between the two snapshots
+     */
+    public boolean sameUsedObjects(WorldSnapshot other) {
+        return other != null && other.usedObjects == usedObjects;
+    }
+
+    /**
+     * Returns the X position to render at, interpolated between the last two ticks
+     * and rounded to whole pixels.
+     *
+     * @param alpha progress into the next tick, in {@code [0, 1]}
+     * @return the interpolated X position in pixels
+     */
+    public double getRenderX(double alpha) {
+        return Math.round(prevPosX + (posX - prevPosX) * alpha);
+    }
+
+    /**
+     * Returns the Y position to render at, interpolated between the last two ticks
+     * and rounded to whole pixels.
+     *
+     * @param alpha progress into the next tick, in {@code [0, 1]}
+     * @return the interpolated Y position in pixels
+     */
+    public double getRenderY(double alpha) {
+        return Math.round(prevPosY + (posY - prevPosY) * alpha);
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.input;
+
+/**
+ * Game actions the player can trigger.
+ * <p>
+ * Each action owns one bit of the action mask kept by {@link InputState}.
+ * </p>
+ *
+ * @author adiakonov
+ */
+public enum InputAction {
+    LEFT,
+    RIGHT,
+    JUMP;
+
+    /** Bit of this action in an action mask. */
+    public final int bit;
+
+    /** Cached result of {@link #values()}, which allocates a new array on every call. */
+    static final InputAction[] VALUES = values();
+
+    InputAction() {
+        this.bit = 1 << ordinal();
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.input;
+
+import javafx.scene.input.KeyCode;
+
+/**
+ * Table mapping keys to {@link InputAction}s.
+ * <p>
+ * The table is an array indexed by {@link KeyCode#ordinal()}, so a lookup is a
+ * single array access without hashing or string conversion.
+ * </p>
+ *
+ * @author adiakonov
+ */
+public class InputBindings {
+    private final InputAction[] actions = new InputAction[KeyCode.values().length];
+
+    /**
+     * Creates the default bindings: arrow keys to move, space to jump.
+     *
+     * @return a new table with the default bindings
+     */
+    public static InputBindings defaults() {
+        InputBindings bindings = new InputBindings();
+        bindings.bind(KeyCode.LEFT, InputAction.LEFT);
+        bindings.bind(KeyCode.RIGHT, InputAction.RIGHT);
+        bindings.bind(KeyCode.SPACE, InputAction.JUMP);
+        return bindings;
+    }
+
+    /**
+     * Binds a key to an action, replacing any previous binding of that key.
+     * Several keys may be bound to the same action.
+     *
+     * @param key    the key
+     * @param action the action, or null to unbind the key
+     */
+    public void bind(KeyCode key, InputAction action) {
+        actions[key.ordinal()] = action;
+    }
+
+    /**
+     * Removes the binding of a key.
+     *
+     * @param key the key
+     */
+    public void unbind(KeyCode key) {
+        actions[key.ordinal()] = null;
+    }
+
+    /**
+     * Returns the action bound to a key.
+     *
+     * @param key the key
+     * @return the action, or null if the key is not bound
+     */
+    public InputAction actionFor(KeyCode key) {
+        return key == null ? null : actions[key.ordinal()];
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.input;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free single-producer/single-consumer ring buffer of press and release events.
+ * <p>
+ * The JavaFX thread is the only producer and the simulation is the only consumer.
+ * Events are stored in preallocated parallel arrays, so neither side allocates.
+ * The capacity must be a power of two.
+ * </p>
+ *
+ * @author adiakonov
+ */
+public class InputEventQueue {
+    private final int mask;
+    private final byte[] actions;
+    private final boolean[] pressed;
+    private final long[] timestamps;
+
+    /** Index of the next slot to write; only advanced by the producer. */
+    private final AtomicLong tail = new AtomicLong();
+
+    /** Index of the next slot to read; only advanced by the consumer. */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * Creates a queue.
+     *
+     * @param capacity the number of events it can hold, a power of two
+     */
+    public InputEventQueue(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.mask = capacity - 1;
+        this.actions = new byte[capacity];
+        this.pressed = new boolean[capacity];
+        this.timestamps = new long[capacity];
+    }
+
+    /**
+     * Appends an event. Producer side only.
+     *
+     * @param action    the action
+     * @param isPressed true for a press, false for a release
+     * @param nanos     the {@link System#nanoTime()} of the event
+     * @return false if the queue is full and the event was dropped
+     */
+    public boolean offer(InputAction action, boolean isPressed, long nanos) {
+        long t = tail.get();
+        if (t - head.get() > mask) {
+            return false;
+        }
+        int slot = (int) t & mask;
+        actions[slot] = (byte) action.ordinal();
+        pressed[slot] = isPressed;
+        timestamps[slot] = nanos;
+        tail.lazySet(t + 1); // publishes the slot to the consumer
+        return true;
+    }
+
+    /**
+     * Returns whether an event is waiting. Consumer side only.
+     *
+     * @return true if {@link #peekTimestamp()} and {@link #poll()} may be used
+     */
+    public boolean isEmpty() {
+        return head.get() == tail.get();
+    }
+
+    /**
+     * Returns the timestamp of the oldest event. Consumer side only; the queue must not be empty.
+     *
+     * @return the event time in nanoseconds
+     */
+    public long peekTimestamp() {
+        return timestamps[(int) head.get() & mask];
+    }
+
+    /**
+     * Returns the action of the oldest event. Consumer side only; the queue must not be empty.
+     *
+     * @return the action
+     */
+    public InputAction peekAction() {
+        return InputAction.VALUES[actions[(int) head.get() & mask]];
+    }
+
+    /**
+     * Returns whether the oldest event is a press. Consumer side only; the queue must not be empty.
+     *
+     * @return true for a press, false for a release
+     */
+    public boolean peekPressed() {
+        return pressed[(int) head.get() & mask];
+    }
+
+    /**
+     * Removes the oldest event. Consumer side only; the queue must not be empty.
+     */
+    public void poll() {
+        head.lazySet(head.get() + 1); // hands the slot back to the producer
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.input;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+/**
+ * Recorded per-tick input of one game, together with the level it was played on.
+ * <p>
+ * The file format is compact: a small header (magic, version, level seed, CRC32
+ * of the level file, tick rate) followed by the run-length encoded
+ * {@link InputScript}, each run stored as one mask byte and a variable-length
+ * tick count. A run is only written when the pressed actions change, so a
+ * recording takes a few bytes per second of gameplay.
+ * </p>
+ *
+ * @author adiakonov
+ */
+public class InputRecording {
+    private static final int MAGIC = 0x4A474952; // "JGIR"
+    private static final int VERSION = 1;
+    private static final int FLAG_SEEDED = 1;
+
+    private final boolean seeded;
+    private final long seed;
+    private final int levelCrc;
+    private final int tickRate;
+    private final InputScript script;
+
+    /**
+     * Creates a recording.
+     *
+     * @param seeded   whether the level was generated from {@code seed}
+     * @param seed     the level generator seed (ignored if not seeded)
+     * @param levelCrc the CRC32 of the level file, see {@link #hashLevel(String)}
+     * @param tickRate the simulation tick rate the input was recorded at
+     * @param script   the recorded input
+     */
+    public InputRecording(boolean seeded, long seed, int levelCrc, int tickRate, InputScript script) {
+        this.seeded = seeded;
+        this.seed = seed;
+        this.levelCrc = levelCrc;
+        this.tickRate = tickRate;
+        this.script = script;
+    }
+
+    public boolean isSeeded() { return seeded; }
+
+    public long getSeed() { return seed; }
+
+    public int getLevelCrc() { return levelCrc; }
+
+    public int getTickRate() { return tickRate; }
+
+    public InputScript getScript() { return script; }
+
+    /**
+     * Computes the CRC32 of a level file, used to check that a replay runs on
+     * the level it was recorded on.
+     *
+     * @param levelFile the level XML file
+     * @return the CRC32 value
+     * @throws IOException if the file cannot be read
+     */
+    public static int hashLevel(String levelFile) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(Files.readAllBytes(Path.of(levelFile)));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Writes the recording to a file.
+     *
+     * @param file the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeByte(seeded ? FLAG_SEEDED : 0);
+            out.writeLong(seed);
+            out.writeInt(levelCrc);
+            writeVarInt(out, tickRate);
+            writeVarInt(out, script.getRunCount());
+            for (int i = 0; i < script.getRunCount(); i++) {
+                out.writeByte(script.getMask(i));
+                writeVarInt(out, script.getLength(i));
+            }
+        }
+    }
+
+    /**
+     * Reads a recording from a file.
+     *
+     * @param file the file to read
+     * @return the recording
+     * @throws IOException if the file cannot be read or is not a recording
+     */
+    public static InputRecording read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not an input recording: " + file);
+            }
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported input recording version " + version + ": " + file);
+            }
+            boolean seeded = (in.readUnsignedByte() & FLAG_SEEDED) != 0;
+            long seed = in.readLong();
+            int levelCrc = in.readInt();
+            int tickRate = readVarInt(in);
+            int runCount = readVarInt(in);
+            InputScript script = new InputScript();
+            for (int i = 0; i < runCount; i++) {
+                int mask = in.readUnsignedByte();
+                script.append(mask, readVarInt(in));
+            }
+            return new InputRecording(seeded, seed, levelCrc, tickRate, script);
+        }
+    }
+
+    /**
+     * Writes a non-negative int in 7-bit groups, least significant first.
+     */
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Reads an int written by {@link #writeVarInt(DataOutputStream, int)}.
+     */
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length integer");
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.input;
+
+import java.util.Arrays;
+
+/**
+ * Sequence of per-tick action masks, stored run-length encoded.
+ * <p>
+ * Each run is an action mask (see {@link InputAction#bit}) held for a number of
+ * ticks. Scripts can be parsed from a short text form, e.g.
+ * {@code "R:120,RJ:30,-:60"} (right for 120 ticks, right and jump for 30 ticks,
+ * nothing for 60 ticks), where {@code L}, {@code R} and {@code J} stand for
+ * {@link InputAction#LEFT}, {@link InputAction#RIGHT} and {@link InputAction#JUMP}.
+ * </p>
+ *
+ * @author adiakonov
+ */
+public class InputScript {
+    private int[] masks = new int[16];
+    private int[] lengths = new int[16];
+    private int runCount = 0;
+    private long tickCount = 0;
+
+    /**
+     * Parses a script from its text form.
+     *
+     * @param text the script, e.g. {@code "R:120,RJ:30,-:60"}
+     * @return the parsed script
+     * @throws IllegalArgumentException if the text is malformed
+     */
+    public static InputScript parse(String text) {
+        InputScript script = new InputScript();
+        for (String token : text.split(",")) {
+            token = token.trim();
+            if (token.isEmpty()) {
+                continue;
+            }
+            int colon = token.indexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException("Expected <actions>:<ticks>: " + token);
+            }
+            int mask = 0;
+            for (char c : token.substring(0, colon).toCharArray()) {
+                switch (Character.toUpperCase(c)) {
+                    case 'L' -> mask |= InputAction.LEFT.bit;
+                    case 'R' -> mask |= InputAction.RIGHT.bit;
+                    case 'J' -> mask |= InputAction.JUMP.bit;
+                    case '-' -> { }
+                    default -> throw new IllegalArgumentException("Unknown action '" + c + "' in " + token);
+                }
+            }
+            script.append(mask, Integer.parseInt(token.substring(colon + 1).trim()));
+        }
+        return script;
+    }
+
+    /**
+     * Appends one tick with the given mask, extending the last run if it has the same mask.
+     *
+     * @param mask the action mask of the tick
+     */
+    public void append(int mask) {
+        append(mask, 1);
+    }
+
+    /**
+     * Appends a number of ticks with the given mask.
+     *
+     * @param mask  the action mask
+     * @param ticks the number of ticks, not negative
+     */
+    public void append(int mask, int ticks) {
+        if (ticks < 0) {
+            throw new IllegalArgumentException("Negative tick count: " + ticks);
+        }
+        if (ticks == 0) {
+            return;
+        }
+        tickCount += ticks;
+        if (runCount > 0 && masks[runCount - 1] == mask && lengths[runCount - 1] <= Integer.MAX_VALUE - ticks) {
+            lengths[runCount - 1] += ticks;
+            return;
+        }
+        if (runCount == masks.length) {
+            masks = Arrays.copyOf(masks, runCount * 2);
+            lengths = Arrays.copyOf(lengths, runCount * 2);
+        }
+        masks[runCount] = mask;
+        lengths[runCount] = ticks;
+        runCount++;
+    }
+
+    /**
+     * Returns the number of runs.
+     *
+     * @return the run count
+     */
+    public int getRunCount() {
+        return runCount;
+    }
+
+    /**
+     * Returns the action mask of a run.
+     *
+     * @param run the run index
+     * @return the mask
+     */
+    public int getMask(int run) {
+        return masks[run];
+    }
+
+    /**
+     * Returns the length of a run in ticks.
+     *
+     * @param run the run index
+     * @return the number of ticks
+     */
+    public int getLength(int run) {
+        return lengths[run];
+    }
+
+    /**
+     * Returns the total number of ticks.
+     *
+     * @return the sum of all run lengths
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Returns the text form of the script, as accepted by {@link #parse(String)}.
+     *
+     * @return the script text
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < runCount; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            if (masks[i] == 0) {
+                sb.append('-');
+            }
+            if ((masks[i] & InputAction.LEFT.bit) != 0) sb.append('L');
+            if ((masks[i] & InputAction.RIGHT.bit) != 0) sb.append('R');
+            if ((masks[i] & InputAction.JUMP.bit) != 0) sb.append('J');
+            sb.append(':').append(lengths[i]);
+        }
+        return sb.toString();
+    }
+}
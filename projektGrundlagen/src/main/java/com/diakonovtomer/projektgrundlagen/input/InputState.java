@@ -0,0 +1,235 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.input;
+
+import com.diakonovtomer.projektgrundlagen.Constant;
+import java.util.Arrays;
+import javafx.scene.input.KeyCode;
+
+/**
+ * Input subsystem shared by the JavaFX thread and the simulation.
+ * <p>
+ * Key events are mapped to {@link InputAction}s through {@link InputBindings} and
+ * pushed with their timestamp into an {@link InputEventQueue}. The simulation
+ * drains the queue at each tick boundary with {@link #beginTick(long)} and then
+ * reads the action state from a bitmask.
+ * </p>
+ * <p>
+ * An action pressed during a tick counts as down for that tick even if it was
+ * released again before the tick started, so presses shorter than a tick are not lost.
+ * </p>
+ * <p>
+ * Held keys are tracked per key, so when several keys are bound to one action
+ * the action is pressed with the first of them and released with the last.
+ * </p>
+ *
+ * @author adiakonov
+ */
+public class InputState {
+    private final InputBindings bindings;
+    private final InputEventQueue queue = new InputEventQueue(Constant.INPUT_QUEUE_CAPACITY);
+
+    /** Actions held down as seen by the producer (JavaFX thread only). */
+    private int producerMask = 0;
+
+    /** Action each held key was bound to when pressed, by {@link KeyCode#ordinal()} (producer only). */
+    private final InputAction[] heldKeys = new InputAction[KeyCode.values().length];
+
+    /** Number of held keys per action, by {@link InputAction#ordinal()} (producer only). */
+    private final int[] heldKeyCount = new int[InputAction.VALUES.length];
+
+    /** Set by the producer when an event had to be dropped; the consumer then resyncs. */
+    private volatile boolean overflow = false;
+    private volatile int overflowMask = 0;
+
+    /** Actions held down after the last drained event (consumer only). */
+    private int heldMask = 0;
+
+    /** Actions that were down at any time since the previous tick (consumer only). */
+    private int tickMask = 0;
+
+    /** Timestamp of the oldest event consumed by the last tick, or 0 (consumer only). */
+    private long tickFirstEventNanos = 0;
+
+    /** Timestamp of the oldest jump press consumed by the last tick, or 0 (consumer only). */
+    private long tickFirstJumpNanos = 0;
+
+    /**
+     * Creates an input state with the given bindings.
+     *
+     * @param bindings the key bindings
+     */
+    public InputState(InputBindings bindings) {
+        this.bindings = bindings;
+    }
+
+    /**
+     * Returns the key bindings.
+     *
+     * @return the bindings
+     */
+    public InputBindings getBindings() {
+        return bindings;
+    }
+
+    // --- Producer side (JavaFX thread) ---
+
+    /**
+     * Records a key press. Repeated presses of a held key are ignored, and so
+     * is a further key of an action that is already held.
+     *
+     * @param key   the pressed key
+     * @param nanos the {@link System#nanoTime()} of the event
+     * @return true if the press changed the action state and was queued
+     */
+    public boolean keyPressed(KeyCode key, long nanos) {
+        InputAction action = bindings.actionFor(key);
+        if (action == null || heldKeys[key.ordinal()] != null) {
+            return false;
+        }
+        heldKeys[key.ordinal()] = action;
+        if (heldKeyCount[action.ordinal()]++ == 0) {
+            producerMask |= action.bit;
+            push(action, true, nanos);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Records a key release. The action is released when its last held key goes up.
+     *
+     * @param key   the released key
+     * @param nanos the {@link System#nanoTime()} of the event
+     * @return true if the release changed the action state and was queued
+     */
+    public boolean keyReleased(KeyCode key, long nanos) {
+        InputAction action = heldKeys[key.ordinal()]; // the binding may have changed since the press
+        if (action == null) {
+            return false;
+        }
+        heldKeys[key.ordinal()] = null;
+        if (--heldKeyCount[action.ordinal()] == 0) {
+            producerMask &= ~action.bit;
+            push(action, false, nanos);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Releases every held action, e.g. when the window loses focus and the
+     * release events would never arrive.
+     *
+     * @param nanos the {@link System#nanoTime()} of the release
+     */
+    public void releaseAll(long nanos) {
+        Arrays.fill(heldKeys, null);
+        Arrays.fill(heldKeyCount, 0);
+        for (InputAction action : InputAction.VALUES) {
+            if ((producerMask & action.bit) != 0) {
+                producerMask &= ~action.bit;
+                push(action, false, nanos);
+            }
+        }
+    }
+
+    /**
+     * Pushes an event, falling back to a state resync if the queue is full.
+     */
+    private void push(InputAction action, boolean pressed, long nanos) {
+        if (!queue.offer(action, pressed, nanos)) {
+            overflowMask = producerMask;
+            overflow = true;
+        }
+    }
+
+    // --- Consumer side (simulation) ---
+
+    /**
+     * Drains all events up to the given tick boundary and updates the action masks.
+     * Events stamped later stay queued for the next tick.
+     *
+     * @param boundaryNanos the time of the tick boundary
+     */
+    public void beginTick(long boundaryNanos) {
+        tickMask = heldMask;
+        tickFirstEventNanos = 0;
+        tickFirstJumpNanos = 0;
+        while (!queue.isEmpty()) {
+            long nanos = queue.peekTimestamp();
+            if (nanos - boundaryNanos > 0) {
+                break;
+            }
+            InputAction action = queue.peekAction();
+            if (queue.peekPressed()) {
+                heldMask |= action.bit;
+                tickMask |= action.bit;
+                if (action == InputAction.JUMP && tickFirstJumpNanos == 0) {
+                    tickFirstJumpNanos = nanos;
+                }
+            } else {
+                heldMask &= ~action.bit;
+            }
+            if (tickFirstEventNanos == 0) {
+                tickFirstEventNanos = nanos;
+            }
+            queue.poll();
+        }
+        if (overflow) {
+            overflow = false;
+            heldMask = overflowMask;
+            tickMask |= heldMask;
+        }
+    }
+
+    /**
+     * Sets the action state directly, for scripted or replayed input. The mask
+     * stays held until the next call or until queued events change it.
+     *
+     * @param mask a bitmask of {@link InputAction#bit} values
+     */
+    public void applyMask(int mask) {
+        heldMask = mask;
+        tickMask = mask;
+    }
+
+    /**
+     * Returns whether an action is down during the current tick.
+     *
+     * @param action the action
+     * @return true if the action was held or pressed during this tick
+     */
+    public boolean isDown(InputAction action) {
+        return (tickMask & action.bit) != 0;
+    }
+
+    /**
+     * Returns the action mask of the current tick.
+     *
+     * @return a bitmask of {@link InputAction#bit} values
+     */
+    public int getTickMask() {
+        return tickMask;
+    }
+
+    /**
+     * Returns the timestamp of the oldest event consumed by the current tick.
+     *
+     * @return the event time in nanoseconds, or 0 if the tick consumed no event
+     */
+    public long getTickFirstEventNanos() {
+        return tickFirstEventNanos;
+    }
+
+    /**
+     * Returns the timestamp of the oldest jump press consumed by the current tick.
+     *
+     * @return the event time in nanoseconds, or 0 if the tick consumed no jump press
+     */
+    public long getTickFirstJumpNanos() {
+        return tickFirstJumpNanos;
+    }
+}
@@ -52,6 +52,9 @@ public class Generator {
     /** OpenSimplex2 noise generator for terrain shaping */
     private final OpenSimplex2F noise;
 
+    /** Seed of the random number and noise generators */
+    private final long seed;
+
     /**
      * Constructs a new {@code Generator} object, generates the level,
      * prints it to console, and saves it to an XML file.
@@ -60,17 +63,38 @@ public class Generator {
      * @param height the height of the level in tiles
      */
     public Generator(int width, int height) {
+        this(width, height, System.currentTimeMillis());
+        //printLevel();
+        saveLevelToFile("level_output.xml");
+    }
+
+    /**
+     * Constructs a new {@code Generator} object and generates the level from a
+     * fixed seed, without saving it. The same seed always yields the same level.
+     *
+     * @param width  the width of the level in tiles
+     * @param height the height of the level in tiles
+     * @param seed   the seed of the random number and noise generators
+     */
+    public Generator(int width, int height, long seed) {
         this.width = width;
         this.height = height;
+        this.seed = seed;
         this.groundLayer = new GroundTileType[height][width];
         this.objectLayer = new ObjectTileType[height][width];
-        long seed = System.currentTimeMillis();
         this.random = new Random(seed);
         this.noise = new OpenSimplex2F(seed);
         generateLevel();
-        //printLevel();
-        saveLevelToFile("level_output.xml");
-    }   
+    }
+
+    /**
+     * Returns the seed the level was generated from.
+     *
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
     
     /**
      * Generates the entire level:
@@ -6,7 +6,12 @@ package com.diakonovtomer.projektgrundlagen.level;
 
 import com.diakonovtomer.projektgrundlagen.Constant;
 import com.diakonovtomer.projektgrundlagen.entities.EntitiesObjects;
-import com.diakonovtomer.projektgrundlagen.game.GameRenderer;
+import com.diakonovtomer.projektgrundlagen.game.GameCamera;
+import com.diakonovtomer.projektgrundlagen.game.RenderCommandBuffer;
+import com.diakonovtomer.projektgrundlagen.game.Renderer;
+import com.diakonovtomer.projektgrundlagen.game.WorldSnapshot;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Represents a single game level, including its ground and object layers.
@@ -32,7 +37,7 @@ public class Level {
     private final ObjectLayer objectLayer;
     
     /** Renderer used to draw the level. */
-    private final GameRenderer renderer;
+    private final Renderer renderer;
     
     /** The name of the level (usually used for loading resources). */
     private final String levelName;
@@ -40,17 +45,36 @@ public class Level {
     /** Optional: procedural generation map storage. */
     private String [] genMap;
 
+    /** Listeners notified when a tile is mutated. */
+    private final List<TileChangeListener> tileChangeListeners = new ArrayList<>();
+
+    /** Snapshot the object layer was last rendered for (render thread only). */
+    private WorldSnapshot lastObjectSnapshot;
+
     /**
      * Creates a new Level with the specified name and renderer.
      *
      * @param levelName the name of the level file or identifier
-     * @param renderer  the renderer used to draw the tiles
+     * @param renderer  the renderer used to draw the tiles, or null for a level
+     *                  that is only simulated and never rendered
      */
-    public Level(String levelName, GameRenderer renderer) {
+    public Level(String levelName, Renderer renderer) {
         this.levelName = levelName;
         this.renderer = renderer;
         this.groundLayer = new GroundLayer(levelName);
         this.objectLayer = new ObjectLayer(levelName);
+        if (renderer != null) {
+            addTileChangeListener(renderer::onTileChanged);
+        }
+    }
+
+    /**
+     * Registers a listener that is notified whenever a tile of this level changes.
+     *
+     * @param listener the listener to add
+     */
+    public void addTileChangeListener(TileChangeListener listener) {
+        tileChangeListeners.add(listener);
     }
 
     /**
@@ -72,8 +96,8 @@ public class Level {
     /**
      * Clears the specified tile in the given layer type.
      * 
-     * <p>Currently works identically for ground and object layers,
-     * but may be differentiated later.</p>
+     * <p>Registered {@link TileChangeListener}s are notified after the tile
+     * has been replaced.</p>
      *
      * @param type the layer type (e.g. "ground" or "object")
      * @param posX the X coordinate in tile units
@@ -81,9 +105,9 @@ public class Level {
      * @return true if the cell was cleared successfully; false if out of bounds or error
      */
     public boolean clearCell(String type, int posX, int posY) {
-    if (Constant.MAP_LAYER_NAME_GROUND.equals(type)) {
+        if (Constant.MAP_LAYER_NAME_GROUND.equals(type)) {
             try {
-                objectLayer.layer[posY][posX] = EntitiesObjects.create(posX, posY, '.');
+                groundLayer.layer[posY][posX] = EntitiesObjects.create(posX, posY, '.');
             }
             catch(Exception e) {
                 return false;
@@ -96,31 +120,56 @@ public class Level {
                 return false;
             }
         }
+        for (TileChangeListener listener : tileChangeListeners) {
+            listener.onTileChanged(type, posX, posY);
+        }
         return true;
     }
 
     /**
-     * Renders all tiles from the ground layer using the current renderer.
+     * Renders the visible part of the ground layer, only when the tile
+     * layer has to be repainted.
      */
     public void renderGround() {
-        for (int y = 0; y < groundLayer.lengthY; y++) {
-            for (int x = 0; x < groundLayer.lengthX; x++) {
-                EntitiesObjects object = groundLayer.layer[y][x];
-                object.render(renderer);
-            }
-        }            
+        if (!renderer.needsRedraw(RenderCommandBuffer.LAYER_GROUND)) {
+            return; // the tile canvas keeps its content
+        }
+        renderer.setLayer(RenderCommandBuffer.LAYER_GROUND);
+        renderer.renderGroundLayer(groundLayer);
     }
 
     /**
-     * Renders all tiles from the object layer using the current renderer.
+     * Renders the tiles of the object layer that are visible through the camera.
+     * Objects used up according to the snapshot are skipped, and their tiles are
+     * marked dirty the first time they are drawn that way.
+     *
+     * @param snapshot the snapshot being rendered
+     * @return true if an object changed since the previously rendered snapshot
      */
-    public void renderObject() {
-        for (int y = 0; y < objectLayer.lengthY; y++) {
-            for (int x = 0; x < objectLayer.lengthX; x++) {
-                EntitiesObjects object = objectLayer.layer[y][x];
-                object.render(renderer);
+    public boolean renderObject(WorldSnapshot snapshot) {
+        boolean usedChanged = !snapshot.sameUsedObjects(lastObjectSnapshot);
+        boolean changed = false;
+        renderer.setLayer(RenderCommandBuffer.LAYER_OBJECTS);
+        GameCamera camera = renderer.getCamera();
+        int startX = camera.getFirstVisibleTileX(objectLayer.lengthX);
+        int endX = camera.getLastVisibleTileX(objectLayer.lengthX);
+        int startY = camera.getFirstVisibleTileY(objectLayer.lengthY);
+        int endY = camera.getLastVisibleTileY(objectLayer.lengthY);
+        for (int y = startY; y < endY; y++) {
+            for (int x = startX; x < endX; x++) {
+                int tile = y * objectLayer.lengthX + x;
+                if (snapshot.isObjectUsed(tile)) {
+                    if (usedChanged && lastObjectSnapshot != null && !lastObjectSnapshot.isObjectUsed(tile)) {
+                        renderer.markDirty(x * Constant.TILE_SIZE, y * Constant.TILE_SIZE, Constant.TILE_SIZE, Constant.TILE_SIZE);
+                        changed = true;
+                    }
+                    continue;
+                }
+                objectLayer.layer[y][x].render(renderer);
             }
         }
+        lastObjectSnapshot = snapshot;
+        return changed;
     }
 
     /**
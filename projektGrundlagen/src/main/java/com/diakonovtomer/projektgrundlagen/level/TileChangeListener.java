@@ -0,0 +1,23 @@
+package com.diakonovtomer.projektgrundlagen.level;
+
+/**
+ * Listener notified whenever a tile of a {@link Level} is mutated after loading.
+ * <p>
+ * Caches derived from the tile layers (pre-rendered chunks, collision indexes, ...)
+ * register themselves through {@link Level#addTileChangeListener(TileChangeListener)}
+ * to invalidate or update the affected area.
+ * </p>
+ *
+ * @author adiakonov
+ */
+public interface TileChangeListener {
+
+    /**
+     * Called after a tile has been replaced.
+     *
+     * @param type the layer type ({@code "ground"} or {@code "object"})
+     * @param x    the X coordinate in tile units
+     * @param y    the Y coordinate in tile units
+     */
+    void onTileChanged(String type, int x, int y);
+}
@@ -10,15 +10,21 @@ import com.diakonovtomer.projektgrundlagen.game.GameCamera;
 import com.diakonovtomer.projektgrundlagen.game.GameState;
 import com.diakonovtomer.projektgrundlagen.Constant;
 import com.diakonovtomer.projektgrundlagen.game.GameRenderer;
+import com.diakonovtomer.projektgrundlagen.input.InputRecording;
+import com.diakonovtomer.projektgrundlagen.input.InputScript;
 import com.diakonovtomer.projektgrundlagen.level.Level;
 import com.diakonovtomer.projektgrundlagen.level.Generator;
-import javafx.scene.canvas.Canvas;
+import java.io.IOException;
+import java.nio.file.Path;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
 import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.StackPane;
 import javafx.geometry.Pos;
 import javafx.scene.layout.VBox;
-import javafx.scene.canvas.GraphicsContext;
 
 /**
  * Represents the main game screen where gameplay takes place.
@@ -30,7 +36,7 @@ import javafx.scene.canvas.GraphicsContext;
  * 
  * <p>Components:</p>
  * <ul>
- *   <li>{@link Canvas} - main drawing surface</li>
+ *   <li>{@link GameRenderer} - stack of canvases (background, tiles, objects, HUD)</li>
  *   <li>{@link GameCamera} - manages what portion of the level is visible</li>
  *   <li>{@link Level} - handles map and layer logic</li>
  *   <li>{@link GameLoop} - main update/render loop</li>
@@ -54,7 +60,8 @@ public class GameScreen {
     private final String levelName = "level_output.xml";
     private final Level level1;
     private final GameLoop loop;
-    private final Generator gen = new Generator(100, 10);
+    private final Generator gen;
+    private InputRecording recording;
     
     /**
      * Constructs the game screen with a level, player, and rendering loop.
@@ -65,10 +72,14 @@ public class GameScreen {
      */
     public GameScreen(int width, int height, GameScreenListener listener) {
         GameState.reset();
+        InputRecording replay = loadReplay();
+        if (replay != null && replay.isSeeded()) {
+            gen = new Generator(Constant.LEVEL_WIDTH, Constant.LEVEL_HEIGHT, replay.getSeed());
+            gen.saveLevelToFile(levelName);
+        } else {
+            gen = new Generator(Constant.LEVEL_WIDTH, Constant.LEVEL_HEIGHT);
+        }
         BorderPane root = new BorderPane();
-        Canvas canvas = new Canvas(Constant.GAMEWIDTH, Constant.GAMEHEIGHT); // Рвзмер Canvas
-        root.setCenter(canvas);
-        GraphicsContext gc = canvas.getGraphicsContext2D();
         GameCamera camera = new GameCamera(
             Constant.GAMEWIDTH,
             Constant.GAMEHEIGHT,
@@ -77,7 +88,10 @@ public class GameScreen {
             Constant.TILE_SIZE,
             true
         );      
-        GameRenderer renderer = new GameRenderer(gc, camera);
+        GameRenderer renderer = new GameRenderer(camera, Constant.GAMEWIDTH, Constant.GAMEHEIGHT); // Рвзмер Canvas
+        StackPane canvasStack = new StackPane();
+        canvasStack.getChildren().addAll(renderer.getCanvases());
+        root.setCenter(canvasStack);
         
         this.level1 = new Level(levelName, renderer);
         double[] pos = level1.findPlayerPositionPix();
@@ -99,9 +113,23 @@ public class GameScreen {
         root.setStyle(Constant.MENU_BUTTON_STYLE);      
         
         scene = new Scene(root, width, height);
-        canvas.requestFocus(); // initial keyboard focus
+        canvasStack.requestFocus(); // initial keyboard focus
         
-        loop = new GameLoop(scene, gc, renderer, camera, level1, entitiesPlayer);
+        loop = new GameLoop(scene, renderer, camera, level1, entitiesPlayer);
+        if (replay != null) {
+            startReplay(replay);
+        } else if (Constant.INPUT_RECORD_FILE != null) {
+            startRecording();
+        }
+        if (Constant.PROFILER_OVERLAY) {
+            Label profilerReadout = new Label();
+            profilerReadout.setFont(Font.font("Monospaced", 10));
+            profilerReadout.setTextFill(Color.WHITE);
+            profilerReadout.setMouseTransparent(true);
+            StackPane.setAlignment(profilerReadout, Pos.TOP_LEFT);
+            canvasStack.getChildren().add(profilerReadout);
+            loop.setProfilerReadout(profilerReadout);
+        }
         loop.start();
     }
     
@@ -117,9 +145,70 @@ public class GameScreen {
     /**
      * Stops the main game loop.
      * Useful when exiting the game screen or pausing.
+     * Writes the input recording, if one was made.
      */
     public void stop() {
         loop.stop();
+        if (recording != null) {
+            try {
+                recording.write(Path.of(Constant.INPUT_RECORD_FILE));
+                System.out.println("Input recorded: " + recording.getScript().getTickCount() + " ticks, "
+                        + recording.getScript().getRunCount() + " runs");
+            } catch (IOException e) {
+                System.err.println("Failed to write input recording: " + e.getMessage());
+            }
+            recording = null;
+        }
+    }
+
+    /**
+     * Reads the recording configured in {@link Constant#INPUT_REPLAY_FILE}.
+     *
+     * @return the recording, or null if none is configured or it cannot be read
+     */
+    private InputRecording loadReplay() {
+        if (Constant.INPUT_REPLAY_FILE == null) {
+            return null;
+        }
+        try {
+            return InputRecording.read(Path.of(Constant.INPUT_REPLAY_FILE));
+        } catch (IOException e) {
+            System.err.println("Failed to read input recording: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Replays a recording instead of the keyboard input, warning if it was made
+     * on a different level or tick rate.
+     *
+     * @param replay the recording to replay
+     */
+    private void startReplay(InputRecording replay) {
+        try {
+            if (InputRecording.hashLevel(levelName) != replay.getLevelCrc()) {
+                System.err.println("Replay was recorded on a different level, it will diverge");
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to hash level: " + e.getMessage());
+        }
+        if (replay.getTickRate() != Constant.SIMULATION_TICK_RATE) {
+            System.err.println("Replay was recorded at " + replay.getTickRate() + " ticks/s, it will diverge");
+        }
+        loop.getSimulation().setReplay(replay.getScript());
+    }
+
+    /**
+     * Starts recording the input of this game, together with the level seed and hash.
+     */
+    private void startRecording() {
+        try {
+            recording = new InputRecording(true, gen.getSeed(), InputRecording.hashLevel(levelName),
+                    Constant.SIMULATION_TICK_RATE, new InputScript());
+            loop.getSimulation().setRecording(recording.getScript());
+        } catch (IOException e) {
+            System.err.println("Failed to hash level, input is not recorded: " + e.getMessage());
+        }
     }
 
     /**
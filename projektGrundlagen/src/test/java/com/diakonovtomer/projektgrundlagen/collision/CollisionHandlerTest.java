@@ -0,0 +1,137 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.collision;
+
+import com.diakonovtomer.projektgrundlagen.Constant;
+import com.diakonovtomer.projektgrundlagen.entities.EntitiesPlayer;
+import com.diakonovtomer.projektgrundlagen.level.Level;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Checks the swept collision of the player's hitbox against small hand-made levels.
+ *
+ * @author adiakonov
+ */
+public class CollisionHandlerTest {
+    private static final double EPSILON = 1e-9;
+
+    /** Offsets of the hitbox inside the player sprite. */
+    private static final double OFFSET_X = (Constant.PLAYER_WIDTH - Constant.PLAYER_WIDTH * Constant.PLAYER_WIDTH_HITBOX) / 2;
+    private static final double OFFSET_Y = (Constant.PLAYER_HEIGHT - Constant.PLAYER_HEIGHT * Constant.PLAYER_HEIGHT_HITBOX) / 2;
+    private static final double HITBOX_W = Constant.PLAYER_WIDTH * Constant.PLAYER_WIDTH_HITBOX;
+    private static final double HITBOX_H = Constant.PLAYER_HEIGHT * Constant.PLAYER_HEIGHT_HITBOX;
+
+    @TempDir
+    Path dir;
+
+    /** Y position at which the player stands on a surface whose top is at the given row. */
+    private static double standingY(int row) {
+        return row * Constant.TILE_SIZE - HITBOX_H - OFFSET_Y;
+    }
+
+    private Level level(String... groundRows) throws IOException {
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        xml.append("<level width=\"").append(groundRows[0].length()).append("\" height=\"").append(groundRows.length).append("\">\n");
+        xml.append("<layer name=\"ground\">\n");
+        for (String row : groundRows) {
+            xml.append("<row>").append(row).append("</row>\n");
+        }
+        xml.append("</layer>\n<layer name=\"object\">\n");
+        for (String row : groundRows) {
+            xml.append("<row>").append(".".repeat(row.length())).append("</row>\n");
+        }
+        xml.append("</layer>\n</level>\n");
+        Path file = dir.resolve("level.xml");
+        Files.writeString(file, xml);
+        return new Level(file.toString(), null);
+    }
+
+    @Test
+    void landsFlushOnTheFloor() throws IOException {
+        Level level = level(
+                "..........",
+                "..........",
+                "..........",
+                "..........",
+                "..........",
+                "##########",
+                "##########");
+        CollisionHandler collision = new CollisionHandler(level);
+        double y = 10;
+        y += collision.sweepY(64, y, 500);
+        assertEquals(standingY(5), y, EPSILON);
+        assertEquals(0, collision.sweepY(64, y, 1), EPSILON, "resting on the floor");
+        assertFalse(collision.isSolidArea(64, y));
+
+        EntitiesPlayer player = new EntitiesPlayer(10, 64, level);
+        for (int tick = 0; tick < 1000; tick++) {
+            player.applyGravity();
+            player.updatePosition(collision);
+        }
+        assertEquals(standingY(5), player.getPosY(), EPSILON);
+    }
+
+    @Test
+    void stopsFlushAgainstWalls() throws IOException {
+        CollisionHandler collision = new CollisionHandler(level(
+                "..........",
+                "#.....#...",
+                "#.....#...",
+                "##########"));
+        double y = standingY(3);
+        double right = 64 + collision.sweepX(64, y, 500);
+        assertEquals(6 * Constant.TILE_SIZE - HITBOX_W - OFFSET_X, right, EPSILON);
+        double left = 64 + collision.sweepX(64, y, -500);
+        assertEquals(Constant.TILE_SIZE - OFFSET_X, left, EPSILON);
+    }
+
+    @Test
+    void doesNotTunnelThroughThinPlatforms() throws IOException {
+        CollisionHandler collision = new CollisionHandler(level(
+                "..........",
+                "..........",
+                "..........",
+                "...~......",
+                "..........",
+                "..........",
+                "..........",
+                "..........",
+                "..........",
+                "##########"));
+        // One step far longer than a tile, straight through the platform
+        double y = collision.sweepY(3 * Constant.TILE_SIZE, 0, 1000);
+        assertEquals(standingY(3), y, EPSILON);
+        // Jumping up into it from below
+        double from = standingY(9);
+        double up = from + collision.sweepY(3 * Constant.TILE_SIZE, from, -1000);
+        assertEquals(4 * Constant.TILE_SIZE - OFFSET_Y, up, EPSILON);
+    }
+
+    @Test
+    void catchesLedgesOverlappedByLessThanAPixel() throws IOException {
+        CollisionHandler collision = new CollisionHandler(level(
+                "..........",
+                "..........",
+                "..........",
+                "..........",
+                "..........",
+                "....######",
+                "....######",
+                "..........",
+                "..........",
+                "##########"));
+        // The hitbox reaches 0.5 px into the ledge column
+        double x = 4 * Constant.TILE_SIZE + 0.5 - HITBOX_W - OFFSET_X;
+        double y = collision.sweepY(x, 0, 1000);
+        assertEquals(standingY(5), y, EPSILON);
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.collision;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks {@link SpatialHash} against a brute-force reference over random operations.
+ *
+ * @author adiakonov
+ */
+public class SpatialHashTest {
+
+    /** Reference boxes by body id: x, y, width, height. */
+    private final Map<Integer, double[]> bodies = new HashMap<>();
+
+    @Test
+    void matchesBruteForceReference() {
+        Random random = new Random(5);
+        SpatialHash hash = new SpatialHash(32, 64); // few buckets, so the table has to grow
+        int[] out = new int[1000];
+        for (int step = 0; step < 20_000; step++) {
+            int op = random.nextInt(10);
+            if (op < 3 || bodies.isEmpty()) {
+                double[] box = {random.nextDouble() * 2000 - 500, random.nextDouble() * 600 - 100,
+                        random.nextDouble() * 80, random.nextDouble() * 80};
+                int id = hash.insert(box[0], box[1], box[2], box[3]);
+                assertTrue(bodies.put(id, box) == null, "ids are unique");
+            } else if (op < 4) {
+                int id = randomId(random);
+                hash.remove(id);
+                bodies.remove(id);
+            } else if (op < 8) {
+                int id = randomId(random);
+                double[] box = bodies.get(id);
+                box[0] += random.nextDouble() * 40 - 20;
+                box[1] += random.nextDouble() * 40 - 20;
+                hash.move(id, box[0], box[1]);
+            } else {
+                double x = random.nextDouble() * 2000 - 500;
+                double y = random.nextDouble() * 600 - 100;
+                double w = random.nextDouble() * 200;
+                double h = random.nextDouble() * 200;
+                int count = hash.query(x, y, w, h, out);
+                Set<Integer> found = new HashSet<>();
+                for (int i = 0; i < count; i++) {
+                    assertTrue(found.add(out[i]), "each body is reported once");
+                }
+                Set<Integer> expected = new HashSet<>();
+                bodies.forEach((id, box) -> {
+                    if (overlaps(box, x, y, w, h)) {
+                        expected.add(id);
+                    }
+                });
+                assertEquals(expected, found);
+            }
+            if (step % 1000 == 0) {
+                assertEquals(bruteForcePairs(), findPairs(hash));
+            }
+        }
+        assertEquals(bodies.size(), hash.size());
+    }
+
+    @Test
+    void broadphaseScalesToTensOfThousandsOfBodies() {
+        Random random = new Random(9);
+        SpatialHash hash = new SpatialHash();
+        List<double[]> boxes = new ArrayList<>();
+        for (int i = 0; i < 30_000; i++) {
+            double[] box = {random.nextDouble() * 32_000, random.nextDouble() * 320, 16, 16, 0};
+            box[4] = hash.insert(box[0], box[1], box[2], box[3]);
+            boxes.add(box);
+        }
+        // Reference: sweep over the boxes sorted by their left edge
+        boxes.sort(Comparator.comparingDouble(box -> box[0]));
+        long expected = 0;
+        for (int i = 0; i < boxes.size(); i++) {
+            double[] a = boxes.get(i);
+            for (int j = i + 1; j < boxes.size() && boxes.get(j)[0] < a[0] + a[2]; j++) {
+                double[] b = boxes.get(j);
+                if (overlaps(a, b[0], b[1], b[2], b[3])) {
+                    expected++;
+                }
+            }
+        }
+        long[] pairs = {0};
+        hash.findOverlaps((a, b) -> pairs[0]++);
+        assertEquals(expected, pairs[0]);
+    }
+
+    private int randomId(Random random) {
+        Integer[] ids = bodies.keySet().toArray(new Integer[0]);
+        Arrays.sort(ids); // HashMap order must not make the test depend on the JDK
+        return ids[random.nextInt(ids.length)];
+    }
+
+    private static boolean overlaps(double[] box, double x, double y, double w, double h) {
+        return box[0] < x + w && x < box[0] + box[2] && box[1] < y + h && y < box[1] + box[3];
+    }
+
+    private static long pairKey(int a, int b) {
+        return (long) Math.min(a, b) << 32 | Math.max(a, b);
+    }
+
+    private Set<Long> bruteForcePairs() {
+        Set<Long> pairs = new HashSet<>();
+        Integer[] ids = bodies.keySet().toArray(new Integer[0]);
+        for (int i = 0; i < ids.length; i++) {
+            for (int j = i + 1; j < ids.length; j++) {
+                double[] b = bodies.get(ids[j]);
+                if (overlaps(bodies.get(ids[i]), b[0], b[1], b[2], b[3])) {
+                    pairs.add(pairKey(ids[i], ids[j]));
+                }
+            }
+        }
+        return pairs;
+    }
+
+    private static Set<Long> findPairs(SpatialHash hash) {
+        Set<Long> pairs = new HashSet<>();
+        hash.findOverlaps((a, b) -> assertTrue(pairs.add(pairKey(a, b)), "each pair is reported once"));
+        return pairs;
+    }
+}
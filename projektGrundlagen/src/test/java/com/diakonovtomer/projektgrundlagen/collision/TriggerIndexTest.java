@@ -0,0 +1,79 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.collision;
+
+import com.diakonovtomer.projektgrundlagen.Constant;
+import com.diakonovtomer.projektgrundlagen.entities.EntitiesObjects;
+import com.diakonovtomer.projektgrundlagen.game.HeadlessRunner;
+import com.diakonovtomer.projektgrundlagen.level.Level;
+import com.diakonovtomer.projektgrundlagen.level.ObjectLayer;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the sparse {@link TriggerIndex} against the object layer.
+ *
+ * @author adiakonov
+ */
+public class TriggerIndexTest {
+    private Level level;
+    private TriggerIndex index;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        level = new Level(HeadlessRunner.generateLevel(7).getPath(), null);
+        index = new CollisionHandler(level).getTriggerIndex();
+    }
+
+    @Test
+    void indexesEveryInteractiveObject() {
+        ObjectLayer layer = level.getObjectLayer();
+        int count = 0;
+        for (int y = 0; y < layer.lengthY; y++) {
+            for (int x = 0; x < layer.lengthX; x++) {
+                EntitiesObjects object = layer.layer[y][x];
+                if (object.isObject()) {
+                    count++;
+                    assertSame(object, index.objectAt(x, y));
+                } else {
+                    assertNull(index.objectAt(x, y));
+                }
+            }
+        }
+        assertEquals(count, index.size());
+        assertNull(index.objectAt(-1, 0));
+        assertNull(index.objectAt(layer.lengthX, 0));
+    }
+
+    @Test
+    void clearedTileIsRemovedIncrementally() {
+        EntitiesObjects key = index.getByType(Constant.KEY).get(0);
+        int size = index.size();
+        int keys = index.getByType(Constant.KEY).size();
+        level.clearCell(Constant.MAP_LAYER_NAME_OBJECT, key.getX(), key.getY());
+        assertEquals(size - 1, index.size());
+        assertNull(index.objectAt(key.getX(), key.getY()));
+        assertEquals(keys - 1, index.getByType(Constant.KEY).size());
+        assertFalse(index.getByType(Constant.KEY).contains(key));
+    }
+
+    @Test
+    void usedUpObjectsAreLeftOutOfBothViews() {
+        List<EntitiesObjects> keys = index.getByType(Constant.KEY);
+        EntitiesObjects key = keys.get(0);
+        key.clear();
+        assertNull(index.objectAt(key.getX(), key.getY()));
+        assertEquals(keys.size() - 1, index.getByType(Constant.KEY).size());
+        assertFalse(index.getByType(Constant.KEY).contains(key));
+        assertTrue(index.size() > 0);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.game;
+
+import com.diakonovtomer.projektgrundlagen.input.InputBindings;
+import com.diakonovtomer.projektgrundlagen.input.InputState;
+import javafx.scene.input.KeyCode;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Checks that {@link FramePacer} keeps the frame cap while keys are held.
+ *
+ * @author adiakonov
+ */
+public class FramePacerTest {
+    private static final long PULSE_NANOS = 1_000_000_000L / 60;
+
+    @Test
+    void heldKeyRepeatsDoNotBypassTheCap() {
+        FramePacer pacer = new FramePacer(30, 10, 60, true);
+        InputState input = new InputState(InputBindings.defaults());
+        int rendered = 0;
+        for (int pulse = 1; pulse <= 120; pulse++) {
+            long now = pulse * PULSE_NANOS;
+            // The OS repeats the held key on every pulse; only the first press changes the state
+            if (input.keyPressed(KeyCode.LEFT, now)) {
+                pacer.inputChanged();
+            }
+            if (!pacer.skipFrame(now)) {
+                rendered++;
+                pacer.frameRendered(true);
+            }
+        }
+        assertEquals(60, rendered, "two seconds at a 30 fps cap");
+    }
+
+    @Test
+    void inputChangeIsRenderedOnTheNextPulse() {
+        FramePacer pacer = new FramePacer(30, 10, 60, true);
+        assertFalse(pacer.skipFrame(PULSE_NANOS));
+        pacer.frameRendered(true);
+        pacer.inputChanged();
+        assertFalse(pacer.skipFrame(2 * PULSE_NANOS), "shown without waiting for the cap");
+    }
+
+    @Test
+    void idleLoopRendersAtTheIdleRate() {
+        FramePacer pacer = new FramePacer(0, 10, 5, true);
+        int rendered = 0;
+        for (int pulse = 1; pulse <= 65; pulse++) {
+            if (!pacer.skipFrame(pulse * PULSE_NANOS)) {
+                rendered++;
+                pacer.frameRendered(false);
+            }
+        }
+        assertEquals(5 + 10, rendered, "5 frames until idle, then 10 fps for one second");
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.game;
+
+import com.diakonovtomer.projektgrundlagen.Constant;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the framebuffer of {@link HeadlessRenderer} against expected pixels.
+ *
+ * @author adiakonov
+ */
+public class HeadlessRendererTest {
+    private static final int RED = 0xFFFF0000;
+    private static final int W = Constant.GAMEWIDTH;
+    private static final int H = Constant.GAMEHEIGHT;
+
+    private HeadlessRenderer renderer;
+
+    @BeforeEach
+    void setUp() {
+        GameCamera camera = new GameCamera(W, H, 100 * Constant.TILE_SIZE, 10 * Constant.TILE_SIZE, Constant.TILE_SIZE, false);
+        renderer = new HeadlessRenderer(camera, W, H);
+        renderer.beginFrame();
+    }
+
+    @Test
+    void fillsExactlyTheCell() {
+        renderer.renderCell(Color.RED, 32, 64, 32, 32);
+        int[] fb = renderer.getFramebuffer();
+        assertEquals(RED, fb[64 * W + 32]);
+        assertEquals(RED, fb[95 * W + 63]);
+        assertEquals(0, fb[64 * W + 31]);
+        assertEquals(0, fb[64 * W + 64]);
+        assertEquals(0, fb[63 * W + 32]);
+        assertEquals(0, fb[96 * W + 32]);
+        assertEquals(1, renderer.getDrawCalls());
+    }
+
+    @Test
+    void clipsCellsOverlappingTheEdges() {
+        renderer.renderCell(Color.RED, W - 16, H - 16, 32, 32);
+        renderer.renderCell(Color.RED, -16, -16, 32, 32);
+        int[] fb = renderer.getFramebuffer();
+        assertEquals(RED, fb[H * W - 1]);
+        assertEquals(RED, fb[(H - 16) * W + W - 16]);
+        assertEquals(0, fb[(H - 17) * W + W - 1]);
+        assertEquals(RED, fb[0]);
+        assertEquals(RED, fb[15 * W + 15]);
+        assertEquals(0, fb[16 * W + 16]);
+    }
+
+    @Test
+    void ignoresCellsInTheCameraMargin() {
+        renderer.renderCell(Color.RED, W + Constant.TILE_SIZE, H - Constant.TILE_SIZE, 32, 32);
+        renderer.renderCell(Color.RED, W - Constant.TILE_SIZE, H + Constant.TILE_SIZE, 32, 32);
+        renderer.renderCell(Color.RED, -2 * Constant.TILE_SIZE, 0, 32, 32);
+        for (int pixel : renderer.getFramebuffer()) {
+            assertEquals(0, pixel);
+        }
+        assertEquals(3, renderer.getDrawCalls());
+    }
+
+    @Test
+    void countsInvalidCalls() {
+        renderer.renderCell(Color.RED, Double.NaN, 0, 32, 32);
+        renderer.renderCell(Color.RED, 0, 0, 0, 32);
+        renderer.renderSprite(null, 0, 0, 32, 32);
+        assertEquals(3, renderer.getInvalidDrawCalls());
+        assertEquals(0, renderer.getDrawCalls());
+    }
+}
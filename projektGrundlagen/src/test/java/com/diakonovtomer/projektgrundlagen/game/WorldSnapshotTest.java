@@ -0,0 +1,37 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.game;
+
+import com.diakonovtomer.projektgrundlagen.Constant;
+import com.diakonovtomer.projektgrundlagen.input.InputScript;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the published {@link WorldSnapshot} carries the HUD values and used-up objects.
+ *
+ * @author adiakonov
+ */
+public class WorldSnapshotTest {
+
+    @Test
+    void publishesCollectedKeysAndHudValues() throws Exception {
+        String level = HeadlessRunner.generateLevel(42).getPath();
+        HeadlessRunner.Result result = HeadlessRunner.run(level,
+                InputScript.parse("R:600,RJ:40,R:600,LJ:40,L:300,R:2000"), -1);
+        assertTrue(result.keys > 0, "the script collects keys");
+        int used = 0;
+        for (int tile = 0; tile < Constant.LEVEL_WIDTH * Constant.LEVEL_HEIGHT; tile++) {
+            if (result.snapshot.isObjectUsed(tile)) {
+                used++;
+            }
+        }
+        assertEquals(result.keys, used);
+        assertEquals(GameState.getKeys(), result.snapshot.keys);
+        assertEquals(GameState.getLives(), result.snapshot.lives);
+    }
+}
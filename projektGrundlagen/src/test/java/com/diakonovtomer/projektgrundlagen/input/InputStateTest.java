@@ -0,0 +1,72 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.diakonovtomer.projektgrundlagen.input;
+
+import javafx.scene.input.KeyCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the held state of actions bound to several keys.
+ *
+ * @author adiakonov
+ */
+public class InputStateTest {
+    private InputState input;
+
+    @BeforeEach
+    void setUp() {
+        InputBindings bindings = InputBindings.defaults();
+        bindings.bind(KeyCode.A, InputAction.LEFT);
+        input = new InputState(bindings);
+    }
+
+    @Test
+    void actionStaysHeldUntilLastKeyIsReleased() {
+        input.keyPressed(KeyCode.LEFT, 1);
+        input.keyPressed(KeyCode.A, 2);
+        input.keyReleased(KeyCode.LEFT, 3);
+        input.beginTick(10);
+        input.beginTick(20);
+        assertTrue(input.isDown(InputAction.LEFT));
+        input.keyReleased(KeyCode.A, 21);
+        input.beginTick(30);
+        input.beginTick(40);
+        assertFalse(input.isDown(InputAction.LEFT));
+    }
+
+    @Test
+    void releaseUsesTheBindingOfThePress() {
+        input.keyPressed(KeyCode.A, 1);
+        input.getBindings().unbind(KeyCode.A);
+        input.keyReleased(KeyCode.A, 2);
+        input.beginTick(10);
+        input.beginTick(20);
+        assertFalse(input.isDown(InputAction.LEFT));
+    }
+
+    @Test
+    void releaseAllClearsHeldKeys() {
+        input.keyPressed(KeyCode.LEFT, 1);
+        input.releaseAll(2);
+        input.keyPressed(KeyCode.LEFT, 3);
+        input.beginTick(10);
+        input.beginTick(20);
+        assertTrue(input.isDown(InputAction.LEFT));
+    }
+
+    @Test
+    void tapInsideOneTickIsDownForThatTickOnly() {
+        input.keyPressed(KeyCode.LEFT, 1);
+        input.keyReleased(KeyCode.LEFT, 2);
+        input.beginTick(10);
+        assertTrue(input.isDown(InputAction.LEFT));
+        input.beginTick(20);
+        assertFalse(input.isDown(InputAction.LEFT));
+    }
+}